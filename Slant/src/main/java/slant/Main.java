@@ -1,10 +1,25 @@
 package slant;
 
 import javax.swing.SwingUtilities;
+import slant.generator.BatchGenerator;
+import slant.solver.BatchSolver;
 import slant.view.SlantFrame;
 
+import java.util.Arrays;
+
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Headless modes never load AWT: "solve" and "generate" take the
+        // options of BatchSolver and BatchGenerator
+        if (args.length > 0 && args[0].equals("solve")) {
+            BatchSolver.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("generate")) {
+            BatchGenerator.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         SwingUtilities.invokeLater(() -> {
             SlantFrame frame = new SlantFrame();
             frame.setVisible(true);
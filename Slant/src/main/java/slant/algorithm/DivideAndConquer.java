@@ -1,11 +1,25 @@
 package slant.algorithm;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntUnaryOperator;
 
 
 public class DivideAndConquer {
 
+    // Ranges this short are finished by insertion sort
+    private static final int INSERTION_SORT_CUTOFF = 32;
+
+    // Merge sorts at least this long split across the common ForkJoinPool
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    // int sorts switch to counting sort when max - min is below this and below n
+    private static final int COUNTING_SORT_MAX_RANGE = 1 << 16;
+
     /**
 
      * Time Complexity: O(n log n)
@@ -16,44 +30,62 @@ public class DivideAndConquer {
      * @return A new sorted list.
      */
     public static <T extends Comparable<T>> List<T> mergeSort(List<T> list) {
+        return mergeSort(list, Comparator.naturalOrder());
+    }
+
+    /**
+     * Stable merge sort by the given order. Works on one array copy of the
+     * list and one buffer of the same size: runs of INSERTION_SORT_CUTOFF are
+     * insertion sorted, then merged bottom-up. Long lists are sorted in
+     * parallel.
+     * Time Complexity: O(n log n)
+     * Space Complexity: O(n)
+     *
+     * @return A new sorted list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> mergeSort(List<T> list, Comparator<? super T> order) {
         if (list.size() <= 1) {
             return list;
         }
 
-        int mid = list.size() / 2;
-        List<T> left = new ArrayList<>(list.subList(0, mid));
-        List<T> right = new ArrayList<>(list.subList(mid, list.size()));
-
-        left = mergeSort(left);
-        right = mergeSort(right);
-
-        return merge(left, right);
+        Object[] items = list.toArray();
+        sortObjects(items, (Comparator<Object>) order);
+        List<T> result = new ArrayList<>(items.length);
+        for (Object item : items) {
+            result.add((T) item);
+        }
+        return result;
     }
 
-    private static <T extends Comparable<T>> List<T> merge(List<T> left, List<T> right) {
-        List<T> result = new ArrayList<>();
-        int i = 0, j = 0;
+    /**
+     * Sorts the array in place with the same merge sort as the list version.
+     * Time Complexity: O(n log n)
+     * Space Complexity: O(n)
+     */
+    public static void mergeSort(int[] a) {
+        mergeSort(a, 0, a.length);
+    }
 
-        while (i < left.size() && j < right.size()) {
-            if (left.get(i).compareTo(right.get(j)) <= 0) {
-                result.add(left.get(i));
-                i++;
-            } else {
-                result.add(right.get(j));
-                j++;
-            }
+    /**
+     * Sorts a[from..to) in place.
+     */
+    public static void mergeSort(int[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        int n = to - from;
+        if (n <= INSERTION_SORT_CUTOFF) {
+            insertionSort(a, from, to);
+            return;
         }
+        if (countingSortIfNarrow(a, from, to))
+            return;
 
-        while (i < left.size()) {
-            result.add(left.get(i));
-            i++;
-        }
-        while (j < right.size()) {
-            result.add(right.get(j));
-            j++;
+        int[] buffer = new int[to]; // Indexed like a
+        if (n >= PARALLEL_SORT_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new IntMergeTask(a, buffer, from, to));
+        } else {
+            bottomUpMergeSort(a, buffer, from, to);
         }
-
-        return result;
     }
 
     /**
@@ -65,41 +97,356 @@ public class DivideAndConquer {
      * @param list The list to sort.
      */
     public static <T extends Comparable<T>> void quickSort(List<T> list) {
-        if (list == null || list.isEmpty()) {
+        quickSort(list, Comparator.naturalOrder());
+    }
+
+    /**
+     * Sorts the list in place with a 3-way partitioning quicksort: a
+     * median-of-three pivot, and every key equal to the pivot is settled in
+     * the same pass, so lists with few distinct keys (clues 0-4) take
+     * O(n log k) instead of going quadratic. Only the smaller side is
+     * recursed into. Not stable.
+     * Time Complexity: O(n log n) average
+     * Space Complexity: O(n) for the array copy, O(log n) stack
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void quickSort(List<T> list, Comparator<? super T> order) {
+        if (list == null || list.size() <= 1) {
+            return;
+        }
+
+        Object[] items = list.toArray();
+        quickSort(items, 0, items.length, (Comparator<Object>) order);
+        ListIterator<T> it = list.listIterator();
+        for (Object item : items) {
+            it.next();
+            it.set((T) item);
+        }
+    }
+
+    /**
+     * Sorts the array in place with the same 3-way quicksort as the list version.
+     * Time Complexity: O(n log n) average
+     * Space Complexity: O(log n)
+     */
+    public static void quickSort(int[] a) {
+        quickSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts a[from..to) in place.
+     */
+    public static void quickSort(int[] a, int from, int to) {
+        checkRange(a.length, from, to);
+        if (to - from > INSERTION_SORT_CUTOFF && countingSortIfNarrow(a, from, to))
+            return;
+        quickSortRange(a, from, to);
+    }
+
+    private static void quickSortRange(int[] a, int from, int to) {
+        while (to - from > INSERTION_SORT_CUTOFF) {
+            int pivot = medianOfThree(a[from], a[(from + to) >>> 1], a[to - 1]);
+
+            // a[from..lt) < pivot, a[lt..i) == pivot, a[gt..to) > pivot
+            int lt = from, i = from, gt = to;
+            while (i < gt) {
+                int v = a[i];
+                if (v < pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v > pivot) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - from < to - gt) {
+                quickSortRange(a, from, lt);
+                from = gt;
+            } else {
+                quickSortRange(a, gt, to);
+                to = lt;
+            }
+        }
+        insertionSort(a, from, to);
+    }
+
+    /**
+     * Stable counting sort of a[from..to) by a small integer key: one pass
+     * counts the keys, one scatters every element to its key's slot in the
+     * buffer, and the result is copied back. No comparisons at all.
+     * Time Complexity: O(n + keyCount)
+     * Space Complexity: O(keyCount) besides the buffer
+     *
+     * @param buffer   scratch space indexed like a, at least to long.
+     * @param keyCount keys lie in 0..keyCount-1; smaller keys come first.
+     */
+    public static void countingSort(int[] a, int from, int to, int[] buffer, int keyCount, IntUnaryOperator key) {
+        checkRange(a.length, from, to);
+        int[] next = new int[keyCount + 1];
+        for (int i = from; i < to; i++) {
+            next[key.applyAsInt(a[i]) + 1]++;
+        }
+        next[0] = from;
+        for (int k = 1; k <= keyCount; k++) {
+            next[k] += next[k - 1];
+        }
+        for (int i = from; i < to; i++) {
+            int v = a[i];
+            buffer[next[key.applyAsInt(v)]++] = v;
+        }
+        System.arraycopy(buffer, from, a, from, to - from);
+    }
+
+    // === INT KERNELS ===
+
+    // Sorts a[from..to) by counting when its values span fewer than
+    // COUNTING_SORT_MAX_RANGE and fewer than n, so the sort is O(n).
+    // Values are rewritten from the counts; ints carry nothing else.
+    private static boolean countingSortIfNarrow(int[] a, int from, int to) {
+        int min = a[from];
+        int max = min;
+        for (int i = from + 1; i < to; i++) {
+            min = Math.min(min, a[i]);
+            max = Math.max(max, a[i]);
+        }
+        long range = (long) max - min;
+        if (range >= COUNTING_SORT_MAX_RANGE || range >= to - from)
+            return false;
+
+        int[] counts = new int[(int) range + 1];
+        for (int i = from; i < to; i++) {
+            counts[a[i] - min]++;
+        }
+        int i = from;
+        for (int k = 0; k < counts.length; k++) {
+            for (int c = counts[k]; c > 0; c--) {
+                a[i++] = min + k;
+            }
+        }
+        return true;
+    }
+
+    private static void insertionSort(int[] a, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int v = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    // Sorts a[from..to), using buffer[from..to) as scratch space
+    private static void bottomUpMergeSort(int[] a, int[] buffer, int from, int to) {
+        for (int lo = from; lo < to; lo += INSERTION_SORT_CUTOFF) {
+            insertionSort(a, lo, Math.min(lo + INSERTION_SORT_CUTOFF, to));
+        }
+
+        // Each pass merges pairs of runs into the other array
+        int[] src = a;
+        int[] dst = buffer;
+        for (int width = INSERTION_SORT_CUTOFF; width < to - from; width *= 2) {
+            for (int lo = from; lo < to; lo += 2 * width) {
+                int mid = Math.min(lo + width, to);
+                int hi = Math.min(lo + 2 * width, to);
+                merge(src, dst, lo, mid, hi);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != a) {
+            System.arraycopy(src, from, a, from, to - from);
+        }
+    }
+
+    // Merges src[lo..mid) and src[mid..hi) into dst[lo..hi)
+    private static void merge(int[] src, int[] dst, int lo, int mid, int hi) {
+        if (mid == hi || src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo); // Already in order
             return;
         }
-        quickSort(list, 0, list.size() - 1);
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (j >= hi || (i < mid && src[i] <= src[j])) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    private static int medianOfThree(int a, int b, int c) {
+        if (a < b) {
+            return b < c ? b : (a < c ? c : a);
+        }
+        return a < c ? a : (b < c ? c : b);
     }
 
-    private static <T extends Comparable<T>> void quickSort(List<T> list, int low, int high) {
-        if (low < high) {
-            int items = partition(list, low, high);
-            quickSort(list, low, items - 1);
-            quickSort(list, items + 1, high);
+    // Sorts both halves in parallel, then merges them through the buffer
+    private static final class IntMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] buffer;
+        private final int from, to;
+
+        IntMergeTask(int[] a, int[] buffer, int from, int to) {
+            this.a = a;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_SORT_THRESHOLD) {
+                bottomUpMergeSort(a, buffer, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IntMergeTask(a, buffer, from, mid), new IntMergeTask(a, buffer, mid, to));
+            merge(a, buffer, from, mid, to);
+            System.arraycopy(buffer, from, a, from, to - from);
         }
     }
 
-    private static <T extends Comparable<T>> int partition(List<T> list, int low, int high) {
-        T pivot = list.get(high);
-        int i = (low - 1); 
+    // === OBJECT KERNELS ===
 
-        for (int j = low; j < high; j++) {
-            
-            if (list.get(j).compareTo(pivot) <= 0) {
-                i++;
+    private static void sortObjects(Object[] items, Comparator<Object> order) {
+        Object[] buffer = new Object[items.length];
+        if (items.length >= PARALLEL_SORT_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new ObjectMergeTask(items, buffer, 0, items.length, order));
+        } else {
+            bottomUpMergeSort(items, buffer, 0, items.length, order);
+        }
+    }
 
-                
-                T temp = list.get(i);
-                list.set(i, list.get(j));
-                list.set(j, temp);
+    // Stable: an element only moves past greater ones
+    private static void insertionSort(Object[] a, int from, int to, Comparator<Object> order) {
+        for (int i = from + 1; i < to; i++) {
+            Object v = a[i];
+            int j = i - 1;
+            while (j >= from && order.compare(a[j], v) > 0) {
+                a[j + 1] = a[j];
+                j--;
             }
+            a[j + 1] = v;
         }
+    }
 
-        
-        T temp = list.get(i + 1);
-        list.set(i + 1, list.get(high));
-        list.set(high, temp);
+    private static void bottomUpMergeSort(Object[] a, Object[] buffer, int from, int to, Comparator<Object> order) {
+        for (int lo = from; lo < to; lo += INSERTION_SORT_CUTOFF) {
+            insertionSort(a, lo, Math.min(lo + INSERTION_SORT_CUTOFF, to), order);
+        }
+
+        Object[] src = a;
+        Object[] dst = buffer;
+        for (int width = INSERTION_SORT_CUTOFF; width < to - from; width *= 2) {
+            for (int lo = from; lo < to; lo += 2 * width) {
+                int mid = Math.min(lo + width, to);
+                int hi = Math.min(lo + 2 * width, to);
+                merge(src, dst, lo, mid, hi, order);
+            }
+            Object[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+        if (src != a) {
+            System.arraycopy(src, from, a, from, to - from);
+        }
+    }
+
+    // Stable: on equal keys the left run goes first
+    private static void merge(Object[] src, Object[] dst, int lo, int mid, int hi, Comparator<Object> order) {
+        if (mid == hi || order.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (j >= hi || (i < mid && order.compare(src[i], src[j]) <= 0)) {
+                dst[k] = src[i++];
+            } else {
+                dst[k] = src[j++];
+            }
+        }
+    }
+
+    private static void quickSort(Object[] a, int from, int to, Comparator<Object> order) {
+        while (to - from > INSERTION_SORT_CUTOFF) {
+            Object pivot = medianOfThree(a[from], a[(from + to) >>> 1], a[to - 1], order);
+
+            int lt = from, i = from, gt = to;
+            while (i < gt) {
+                Object v = a[i];
+                int c = order.compare(v, pivot);
+                if (c < 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (c > 0) {
+                    a[i] = a[--gt];
+                    a[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - from < to - gt) {
+                quickSort(a, from, lt, order);
+                from = gt;
+            } else {
+                quickSort(a, gt, to, order);
+                to = lt;
+            }
+        }
+        insertionSort(a, from, to, order);
+    }
+
+    private static Object medianOfThree(Object a, Object b, Object c, Comparator<Object> order) {
+        if (order.compare(a, b) < 0) {
+            return order.compare(b, c) < 0 ? b : (order.compare(a, c) < 0 ? c : a);
+        }
+        return order.compare(a, c) < 0 ? a : (order.compare(b, c) < 0 ? c : b);
+    }
+
+    private static final class ObjectMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] a;
+        private final Object[] buffer;
+        private final int from, to;
+        private final Comparator<Object> order;
+
+        ObjectMergeTask(Object[] a, Object[] buffer, int from, int to, Comparator<Object> order) {
+            this.a = a;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+            this.order = order;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_SORT_THRESHOLD) {
+                bottomUpMergeSort(a, buffer, from, to, order);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ObjectMergeTask(a, buffer, from, mid, order),
+                    new ObjectMergeTask(a, buffer, mid, to, order));
+            merge(a, buffer, from, mid, to, order);
+            System.arraycopy(buffer, from, a, from, to - from);
+        }
+    }
 
-        return i + 1;
+    private static void checkRange(int length, int from, int to) {
+        if (from < 0 || to > length || from > to)
+            throw new ArrayIndexOutOfBoundsException("Range [" + from + ", " + to + ") of length " + length);
     }
 }
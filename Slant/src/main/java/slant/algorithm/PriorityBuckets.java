@@ -0,0 +1,149 @@
+package slant.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Bucketed priority queue over the integers 0..size-1 with small integer
+ * priorities 0..maxPriority.
+ *
+ * Each bucket is a bit set with one summary level per 64 words, so adding,
+ * removing or re-prioritising an element and finding the smallest element
+ * of the highest non-empty bucket each touch one word per level. Ties are
+ * broken by the smallest element, so the answer never depends on the order
+ * of the updates.
+ *
+ * Time Complexity: O(log_64 n) per operation (at most 4 words for any
+ *                  n below 2^24), O(n) for clear()
+ * Space Complexity: O(n) bytes plus (maxPriority + 1) * n / 63 longs
+ */
+public class PriorityBuckets {
+    private static final byte ABSENT = -1;
+
+    private final byte[] priority; // ABSENT if the element is not queued
+    private final long[][][] buckets; // [priority][level][word], level 0 holds the elements
+    private int nonEmpty; // bit p is set while bucket p holds an element
+    private int size;
+
+    /**
+     * @param maxPriority highest priority used, at most 30.
+     */
+    public PriorityBuckets(int size, int maxPriority) {
+        if (maxPriority < 0 || maxPriority > 30)
+            throw new IllegalArgumentException("Priorities must lie in 0..30, got " + maxPriority);
+        this.priority = new byte[size];
+        Arrays.fill(priority, ABSENT);
+
+        int levels = 1;
+        for (int n = words(size); n > 1; n = words(n)) {
+            levels++;
+        }
+        this.buckets = new long[maxPriority + 1][levels][];
+        for (long[][] bucket : buckets) {
+            int n = size;
+            for (int level = 0; level < levels; level++) {
+                n = words(n);
+                bucket[level] = new long[n];
+            }
+        }
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Queues the element with the given priority, moving it if it is
+     * already queued with another one.
+     */
+    public void set(int element, int p) {
+        int current = priority[element];
+        if (current == p)
+            return;
+        if (current != ABSENT) {
+            clearBit(current, element);
+        }
+        priority[element] = (byte) p;
+        setBit(p, element);
+        if (current == ABSENT) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes the element; does nothing if it is not queued.
+     */
+    public void remove(int element) {
+        int current = priority[element];
+        if (current == ABSENT)
+            return;
+        clearBit(current, element);
+        priority[element] = ABSENT;
+        size--;
+    }
+
+    public boolean contains(int element) {
+        return priority[element] != ABSENT;
+    }
+
+    /**
+     * @return the smallest element of the highest non-empty bucket, or -1
+     *         if nothing is queued.
+     */
+    public int first() {
+        if (nonEmpty == 0)
+            return -1;
+        long[][] bucket = buckets[31 - Integer.numberOfLeadingZeros(nonEmpty)];
+        int element = 0;
+        for (int level = bucket.length - 1; level >= 0; level--) {
+            element = (element << 6) + Long.numberOfTrailingZeros(bucket[level][element]);
+        }
+        return element;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(priority, ABSENT);
+        for (long[][] bucket : buckets) {
+            for (long[] words : bucket) {
+                Arrays.fill(words, 0L);
+            }
+        }
+        nonEmpty = 0;
+        size = 0;
+    }
+
+    // A summary bit is set while its word one level below is non-zero,
+    // so updates stop climbing as soon as a word's emptiness is unchanged
+    private void setBit(int p, int element) {
+        long[][] bucket = buckets[p];
+        for (int level = 0; level < bucket.length; level++) {
+            int word = element >>> 6;
+            long before = bucket[level][word];
+            bucket[level][word] = before | (1L << element);
+            if (before != 0)
+                break;
+            element = word;
+        }
+        nonEmpty |= 1 << p;
+    }
+
+    private void clearBit(int p, int element) {
+        long[][] bucket = buckets[p];
+        for (int level = 0; level < bucket.length; level++) {
+            int word = element >>> 6;
+            long after = bucket[level][word] & ~(1L << element);
+            bucket[level][word] = after;
+            if (after != 0)
+                return;
+            element = word;
+        }
+        nonEmpty &= ~(1 << p);
+    }
+}
@@ -0,0 +1,197 @@
+package slant.algorithm;
+
+/**
+ * Spanning forest of an undirected graph over the vertices 0..size-1, with
+ * undo, kept next to a {@link UnionFind}: every edge the Union-Find merges
+ * on is linked here as a tree edge, so when an edge's endpoints are already
+ * connected the tree path between them is the cycle that edge closes.
+ *
+ * Each vertex points at its parent with the id of the edge between them.
+ * Linking re-roots the tree of the endpoint nearer its root (only the
+ * parent pointers on that root path flip), and a path query walks up from
+ * both ends in turn until the walks meet, so neither ever looks at the rest
+ * of a tree. {@link #rollback(int)} undoes links exactly, newest first.
+ *
+ * Time Complexity: O(d) per link, d the smaller depth of the two endpoints;
+ *                  O(k) per path of k edges; O(d) per undone link
+ * Space Complexity: O(n)
+ */
+public class SpanningForest {
+    private final int[] parent; // -1 for a root
+    private final int[] parentEdge; // id of the edge to the parent
+    private final int[] seenFromA; // walk marks of path(), compared to stamp
+    private final int[] seenFromB;
+    private int stamp;
+
+    // History of links: the vertex that was attached and the root its tree
+    // had before being re-rooted at it. At most size-1 entries.
+    private final int[] historyVertex;
+    private final int[] historyRoot;
+    private int historySize;
+
+    public SpanningForest(int size) {
+        this.parent = new int[size];
+        this.parentEdge = new int[size];
+        this.seenFromA = new int[size];
+        this.seenFromB = new int[size];
+        this.historyVertex = new int[Math.max(0, size - 1)];
+        this.historyRoot = new int[Math.max(0, size - 1)];
+        reset();
+    }
+
+    /**
+     * Makes every vertex a tree of its own and clears history.
+     */
+    public void reset() {
+        java.util.Arrays.fill(parent, -1);
+        historySize = 0;
+    }
+
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * Makes each of the first count given vertices a tree of its own. They
+     * must make up whole trees. Clears history, like {@link #reset()}.
+     */
+    public void isolate(int[] vertices, int count) {
+        for (int i = 0; i < count; i++) {
+            parent[vertices[i]] = -1;
+        }
+        historySize = 0;
+    }
+
+    /**
+     * Joins the trees of a and b with the given edge. The caller guarantees
+     * that a and b are in different trees (e.g. UnionFind.union returned true).
+     */
+    public void link(int a, int b, int edge) {
+        // Step up from both ends in turn; the first to reach its root is re-rooted
+        int x = a;
+        int y = b;
+        while (parent[x] >= 0 && parent[y] >= 0) {
+            x = parent[x];
+            y = parent[y];
+        }
+        int root = y;
+        if (parent[y] >= 0) {
+            int swap = a;
+            a = b;
+            b = swap;
+            root = x;
+        }
+        historyVertex[historySize] = b;
+        historyRoot[historySize] = root;
+        historySize++;
+        evert(b);
+        parent[b] = a;
+        parentEdge[b] = edge;
+    }
+
+    // Makes v the root of its tree by reversing the pointers on its root path
+    private void evert(int v) {
+        int child = v;
+        int node = parent[v];
+        int edge = parentEdge[v];
+        parent[v] = -1;
+        while (node >= 0) {
+            int next = parent[node];
+            int nextEdge = parentEdge[node];
+            parent[node] = child;
+            parentEdge[node] = edge;
+            child = node;
+            node = next;
+            edge = nextEdge;
+        }
+    }
+
+    /**
+     * @return whether the given edge joins a and b in the forest, as opposed
+     *         to an edge the caller kept out of it (one that closed a cycle).
+     */
+    public boolean isTreeEdge(int a, int b, int edge) {
+        return (parent[a] == b && parentEdge[a] == edge) || (parent[b] == a && parentEdge[b] == edge);
+    }
+
+    /**
+     * @return the ids of the edges on the tree path from a to b, in order,
+     *         or null if a and b are in different trees.
+     */
+    public int[] path(int a, int b) {
+        if (++stamp == 0) {
+            java.util.Arrays.fill(seenFromA, 0);
+            java.util.Arrays.fill(seenFromB, 0);
+            stamp = 1;
+        }
+        int x = a;
+        int y = b;
+        seenFromA[x] = stamp;
+        seenFromB[y] = stamp;
+        int meet = (x == y) ? x : -1;
+        while (meet < 0) {
+            boolean moved = false;
+            if (parent[x] >= 0) {
+                x = parent[x];
+                seenFromA[x] = stamp;
+                moved = true;
+                if (seenFromB[x] == stamp) {
+                    meet = x;
+                    break;
+                }
+            }
+            if (parent[y] >= 0) {
+                y = parent[y];
+                seenFromB[y] = stamp;
+                moved = true;
+                if (seenFromA[y] == stamp) {
+                    meet = y;
+                    break;
+                }
+            }
+            if (!moved)
+                return null; // Both walks reached different roots
+        }
+
+        int fromA = depthBelow(a, meet);
+        int fromB = depthBelow(b, meet);
+        int[] edges = new int[fromA + fromB];
+        int i = 0;
+        for (int v = a; v != meet; v = parent[v]) {
+            edges[i++] = parentEdge[v];
+        }
+        i = edges.length;
+        for (int v = b; v != meet; v = parent[v]) {
+            edges[--i] = parentEdge[v];
+        }
+        return edges;
+    }
+
+    private int depthBelow(int v, int ancestor) {
+        int depth = 0;
+        for (; v != ancestor; v = parent[v]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * @return a checkpoint that {@link #rollback(int)} can return to; it is
+     *         the number of links since the last reset, so it matches the
+     *         paired UnionFind's checkpoint.
+     */
+    public int checkpoint() {
+        return historySize;
+    }
+
+    /**
+     * Undoes every link made since the given checkpoint, newest first.
+     */
+    public void rollback(int checkpoint) {
+        while (historySize > checkpoint) {
+            historySize--;
+            parent[historyVertex[historySize]] = -1;
+            evert(historyRoot[historySize]);
+        }
+    }
+}
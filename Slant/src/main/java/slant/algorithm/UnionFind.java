@@ -0,0 +1,142 @@
+package slant.algorithm;
+
+/**
+ * Disjoint-set forest (Union-Find) over the integers 0..size-1, with undo.
+ *
+ * Uses union by rank without path compression, so every union only changes
+ * one parent pointer and can be reverted exactly by {@link #rollback(int)}.
+ *
+ * Callers that never undo (e.g. the puzzle generator filling a huge board)
+ * can turn on path halving instead, which brings find/union down to
+ * O(α(n)) amortised but disables checkpoint/rollback.
+ *
+ * Time Complexity: O(log n) per find/union, O(1) per undone union
+ *                  (O(α(n)) amortised with path compression)
+ * Space Complexity: O(n)
+ */
+public class UnionFind {
+    private final int[] parent;
+    private final byte[] rank;
+    private final boolean pathCompression;
+
+    // History of unions: the root that was attached, with RANK_BUMP set when
+    // the surviving root's rank was incremented. At most size-1 entries.
+    private static final int RANK_BUMP = 1 << 31;
+    private final int[] history;
+    private int historySize;
+
+    public UnionFind(int size) {
+        this(size, false);
+    }
+
+    /**
+     * @param pathCompression halve paths on every find; the structure can
+     *                        then no longer be rolled back.
+     */
+    public UnionFind(int size, boolean pathCompression) {
+        this.parent = new int[size];
+        this.rank = new byte[size];
+        this.pathCompression = pathCompression;
+        this.history = new int[pathCompression ? 0 : Math.max(0, size - 1)];
+        reset();
+    }
+
+    /**
+     * Puts every element back into its own singleton set and clears history.
+     */
+    public void reset() {
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        java.util.Arrays.fill(rank, (byte) 0);
+        historySize = 0;
+    }
+
+    public int size() {
+        return parent.length;
+    }
+
+    public int find(int i) {
+        if (pathCompression) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]]; // Path halving
+                i = parent[i];
+            }
+            return i;
+        }
+        while (parent[i] != i) {
+            i = parent[i];
+        }
+        return i;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Merges the sets containing a and b.
+     *
+     * @return false if a and b were already in the same set.
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB)
+            return false;
+
+        int entry;
+        if (rank[rootA] < rank[rootB]) {
+            parent[rootA] = rootB;
+            entry = rootA;
+        } else if (rank[rootA] > rank[rootB]) {
+            parent[rootB] = rootA;
+            entry = rootB;
+        } else {
+            parent[rootB] = rootA;
+            rank[rootA]++;
+            entry = rootB | RANK_BUMP;
+        }
+        if (!pathCompression) {
+            history[historySize++] = entry;
+        }
+        return true;
+    }
+
+    /**
+     * Puts the first count given elements back into singleton sets. They
+     * must make up whole sets, so that no other element points into them.
+     * Clears history: unions before this can no longer be rolled back.
+     */
+    public void isolate(int[] elements, int count) {
+        for (int i = 0; i < count; i++) {
+            parent[elements[i]] = elements[i];
+            rank[elements[i]] = 0;
+        }
+        historySize = 0;
+    }
+
+    /**
+     * @return a checkpoint that {@link #rollback(int)} can return to.
+     */
+    public int checkpoint() {
+        if (pathCompression)
+            throw new IllegalStateException("Cannot roll back a path-compressed UnionFind");
+        return historySize;
+    }
+
+    /**
+     * Undoes every union made since the given checkpoint, newest first.
+     */
+    public void rollback(int checkpoint) {
+        while (historySize > checkpoint) {
+            int entry = history[--historySize];
+            int child = entry & ~RANK_BUMP;
+            int root = parent[child];
+            parent[child] = child;
+            if ((entry & RANK_BUMP) != 0) {
+                rank[root]--;
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package slant.controller;
+
+import slant.algorithm.UnionFind;
+import slant.model.BoardListener;
+import slant.model.PackedBoard;
+import slant.model.Slant;
+import slant.model.SlantModel;
+import slant.solver.SolverBackend;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The BACKTRACKING strategy's solution, kept across CPU turns.
+ *
+ * Listens to the live model: every cell the human places is checked against
+ * the cached completion as it happens, so a CPU turn that still agrees with
+ * it only has to find the next empty cell (a cursor that only moves back
+ * when a cell is cleared). When the human disagrees, only a window around
+ * the disagreements is solved again, as a board of its own with the cells
+ * outside it held at their cached values; the window doubles on failure,
+ * and once it would cover the board the whole board is solved instead.
+ * The solver work then scales with the window, but a re-solve still copies
+ * the board's cells (O(N) bytes) and walks the trees of cached cells that
+ * touch the window to rule out loops through it.
+ * A position that has no completion is remembered as a dead end until one
+ * of its placed cells changes, since placing more cells cannot fix it.
+ *
+ * Events arrive on the thread that changes the live model (the EDT), while
+ * the CPU searches a snapshot of it on a worker, so the state is guarded by
+ * this object's lock. A solve runs outside the lock and is only stored if no
+ * new board was loaded in the meantime and it was not cancelled.
+ */
+final class CompletionCache implements BoardListener {
+    // Cells around the disagreements solved again on the first try
+    static final int FIRST_WINDOW_RADIUS = 2;
+
+    // cachedMove: the answer needs a solve
+    static final int SOLVE_NEEDED = -2;
+
+    private final SlantModel model; // The live model
+    private int width;
+    private byte[] completion; // cells y * width + x, null if none
+    private final BitSet conflicts = new BitSet(); // placed cells that disagree with completion
+    private int cursor; // no empty cell lies before it
+    private byte[] deadEnd; // cells of a position with no completion, null if none
+    private int epoch; // bumped on every new board or clue
+
+    CompletionCache(SlantModel model) {
+        this.model = model;
+        this.width = model.getWidth();
+        model.addBoardListener(this);
+    }
+
+    // === BOARD EVENTS ===
+
+    @Override
+    public synchronized void cellChanged(int x, int y, Slant oldSlant, Slant newSlant) {
+        int cell = y * width + x;
+        if (completion != null) {
+            conflicts.set(cell, newSlant != Slant.EMPTY && newSlant.ordinal() != completion[cell]);
+        }
+        if (newSlant == Slant.EMPTY && cell < cursor) {
+            cursor = cell;
+        }
+        if (deadEnd != null && deadEnd[cell] != PackedBoard.EMPTY && deadEnd[cell] != newSlant.ordinal()) {
+            deadEnd = null; // One of the cells that made it unsolvable is gone
+        }
+    }
+
+    // A new clue may break the completion or free the dead end, and a solve
+    // in flight still sees the old one, so it is treated like a new board
+    @Override
+    public synchronized void clueChanged(int x, int y, Integer oldClue, Integer newClue) {
+        completion = null;
+        conflicts.clear();
+        deadEnd = null;
+        epoch++;
+    }
+
+    @Override
+    public synchronized void boardReset() {
+        width = model.getWidth();
+        completion = null;
+        conflicts.clear();
+        cursor = 0;
+        deadEnd = null;
+        epoch++;
+    }
+
+    // === LOOKUP ===
+
+    /**
+     * Answers from the cache alone, in amortised O(1).
+     *
+     * @return the move as in {@link #nextMove}, -1 for a known dead end, or
+     *         SOLVE_NEEDED if the cache cannot answer for this position.
+     */
+    synchronized int cachedMove(SlantModel board) {
+        if (completion != null && conflicts.isEmpty()) {
+            return firstEmpty(board);
+        }
+        if (deadEnd != null)
+            return -1;
+        return SOLVE_NEEDED;
+    }
+
+    /**
+     * Finds the CPU's next move: the first empty cell of a completion of the
+     * board, which is the live model or a snapshot of it (same size, clues
+     * and cells).
+     *
+     * @param cancelled stops the solver when set, or null; a cancelled
+     *                  solve leaves the cache unchanged.
+     * @return the cell (y * width + x) and its value as cell << 2 | value,
+     *         or -1 if the position has no completion or no empty cell.
+     */
+    int nextMove(SlantModel board, SolverBackend backend, AtomicBoolean cancelled) {
+        int startEpoch;
+        byte[] cached;
+        BitSet disagreements;
+        synchronized (this) {
+            int move = cachedMove(board);
+            if (move != SOLVE_NEEDED)
+                return move;
+            startEpoch = epoch;
+            cached = completion;
+            disagreements = (BitSet) conflicts.clone();
+        }
+
+        byte[] cells = board.getCellCodes();
+        byte[] solution = (cached == null) ? null
+                : resolveAround(board, backend, cells, cached, disagreements, cancelled);
+        if (solution == null) {
+            solution = backend.solve(board.getWidth(), board.getHeight(), board.getClueCodes(), cells, cancelled);
+        }
+
+        synchronized (this) {
+            if (epoch != startEpoch || (cancelled != null && cancelled.get()))
+                return -1; // A new board or clue arrived, or the turn was called off, while solving
+            if (solution == null) {
+                deadEnd = cells;
+                return -1;
+            }
+            completion = solution;
+            conflicts.clear();
+            cursor = 0;
+            return firstEmpty(board);
+        }
+    }
+
+    // Solves only a window around the disagreements again: the bounding box
+    // of the disagreeing cells grown by a radius, as a board of its own,
+    // with the cells outside it held at their cached (or placed) values.
+    // Doubles the radius on failure.
+    //
+    // @return the new completion, or null if no window short of the whole
+    //         board has one (or the solve was cancelled).
+    private byte[] resolveAround(SlantModel board, SolverBackend backend, byte[] cells, byte[] cached,
+            BitSet disagreements, AtomicBoolean cancelled) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int c = disagreements.nextSetBit(0); c >= 0; c = disagreements.nextSetBit(c + 1)) {
+            minX = Math.min(minX, c % width);
+            maxX = Math.max(maxX, c % width);
+            minY = Math.min(minY, c / width);
+            maxY = Math.max(maxY, c / width);
+        }
+        if (maxX < 0)
+            return null;
+
+        // The completion with the placed cells: every cell outside the window
+        // keeps its value from here
+        byte[] fixed = cached.clone();
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != PackedBoard.EMPTY) {
+                fixed[i] = cells[i];
+            }
+        }
+        int[] outsideLabel = new int[(width + 1) * (height + 1)];
+
+        for (int radius = FIRST_WINDOW_RADIUS;; radius *= 2) {
+            int x0 = Math.max(0, minX - radius);
+            int y0 = Math.max(0, minY - radius);
+            int x1 = Math.min(width - 1, maxX + radius);
+            int y1 = Math.min(height - 1, maxY + radius);
+            if (x0 == 0 && y0 == 0 && x1 == width - 1 && y1 == height - 1)
+                return null; // Left to a solve of the whole board
+
+            byte[] window = solveWindow(board, backend, cells, fixed, x0, y0, x1, y1, cancelled);
+            if (cancelled != null && cancelled.get())
+                return null;
+            if (window != null && !closesLoopOutside(fixed, window, width, height, x0, y0, x1, y1, outsideLabel)) {
+                byte[] solution = fixed.clone();
+                int w = x1 - x0 + 1;
+                for (int y = y0; y <= y1; y++) {
+                    System.arraycopy(window, (y - y0) * w, solution, y * width + x0, w);
+                }
+                return solution;
+            }
+        }
+    }
+
+    // Solves the window (x0, y0)-(x1, y1) as a board of its own. A clue on
+    // its edge is lowered by the lines that the fixed cells outside already
+    // bring to it, so the window's cells only have to supply the rest.
+    private static byte[] solveWindow(SlantModel board, SolverBackend backend, byte[] cells, byte[] fixed,
+            int x0, int y0, int x1, int y1, AtomicBoolean cancelled) {
+        int width = board.getWidth();
+        int w = x1 - x0 + 1;
+        int h = y1 - y0 + 1;
+        byte[] clues = new byte[(w + 1) * (h + 1)];
+        for (int y = y0; y <= y1 + 1; y++) {
+            for (int x = x0; x <= x1 + 1; x++) {
+                Integer clue = board.getClue(x, y);
+                int remaining = PackedBoard.NO_CLUE;
+                if (clue != null) {
+                    remaining = clue;
+                    // Cells around the node: top-left touches with '\', top-right
+                    // with '/', bottom-left with '/', bottom-right with '\'
+                    remaining -= outsideLine(board, fixed, x0, y0, x1, y1, x - 1, y - 1, PackedBoard.BACKWARD);
+                    remaining -= outsideLine(board, fixed, x0, y0, x1, y1, x, y - 1, PackedBoard.FORWARD);
+                    remaining -= outsideLine(board, fixed, x0, y0, x1, y1, x - 1, y, PackedBoard.FORWARD);
+                    remaining -= outsideLine(board, fixed, x0, y0, x1, y1, x, y, PackedBoard.BACKWARD);
+                    if (remaining < 0)
+                        return null; // The outside already over-fills this clue
+                }
+                clues[(y - y0) * (w + 1) + (x - x0)] = (byte) remaining;
+            }
+        }
+
+        byte[] givens = new byte[w * h];
+        for (int y = y0; y <= y1; y++) {
+            System.arraycopy(cells, y * width + x0, givens, (y - y0) * w, w);
+        }
+        return backend.solve(w, h, clues, givens, cancelled);
+    }
+
+    // 1 if cell (x, y) lies on the board outside the window and holds code
+    private static int outsideLine(SlantModel board, byte[] fixed, int x0, int y0, int x1, int y1,
+            int x, int y, int code) {
+        if (x < 0 || y < 0 || x >= board.getWidth() || y >= board.getHeight())
+            return 0;
+        if (x >= x0 && x <= x1 && y >= y0 && y <= y1)
+            return 0;
+        return (fixed[y * board.getWidth() + x] == code) ? 1 : 0;
+    }
+
+    /**
+     * The window's solution has no loop of its own, and neither do the
+     * cells outside it (part of a completion), so a loop in the merged board
+     * has to leave the window and come back: two nodes on the window's edge
+     * joined by both. Labels the edge nodes by the outside trees they lie
+     * on, then adds the window's cells to a Union-Find over its nodes.
+     * Costs the window plus the outside trees that touch its edge.
+     *
+     * @param label scratch array, one entry per board node, all zero.
+     * @return true if the merged board would have a loop.
+     */
+    private static boolean closesLoopOutside(byte[] fixed, byte[] window, int width, int height,
+            int x0, int y0, int x1, int y1, int[] label) {
+        int w = x1 - x0 + 1;
+        int h = y1 - y0 + 1;
+        UnionFind windowNodes = new UnionFind((w + 1) * (h + 1));
+        int[] firstEdgeNode = new int[2 * (w + h) + 1]; // by label - 1
+        int labels = 0;
+        java.util.ArrayDeque<Integer> queue = new java.util.ArrayDeque<>();
+        java.util.List<Integer> visited = new java.util.ArrayList<>();
+        boolean loop = false;
+
+        for (int y = y0; y <= y1 + 1 && !loop; y++) {
+            for (int x = x0; x <= x1 + 1; x++) {
+                if (x != x0 && x != x1 + 1 && y != y0 && y != y1 + 1)
+                    continue; // Inner node: no outside cell touches it
+                int node = y * (width + 1) + x;
+                int local = (y - y0) * (w + 1) + (x - x0);
+                if (label[node] != 0) {
+                    // Reached before through the outside: same tree as that edge node
+                    if (!windowNodes.union(local, firstEdgeNode[label[node] - 1])) {
+                        loop = true;
+                        break;
+                    }
+                    continue;
+                }
+                label[node] = ++labels;
+                firstEdgeNode[labels - 1] = local;
+                visited.add(node);
+                queue.add(node);
+                while (!queue.isEmpty()) {
+                    int n = queue.poll();
+                    int nx = n % (width + 1);
+                    int ny = n / (width + 1);
+                    // The four cells around the node and where their slant leads
+                    for (int k = 0; k < 4; k++) {
+                        int cx = nx - 1 + (k & 1);
+                        int cy = ny - 1 + (k >> 1);
+                        if (cx < 0 || cy < 0 || cx >= width || cy >= height)
+                            continue;
+                        if (cx >= x0 && cx <= x1 && cy >= y0 && cy <= y1)
+                            continue;
+                        // k 0 and 3 are joined by '\', k 1 and 2 by '/'
+                        int code = (k == 0 || k == 3) ? PackedBoard.BACKWARD : PackedBoard.FORWARD;
+                        if (fixed[cy * width + cx] != code)
+                            continue;
+                        // The far end is the node mirrored through the cell's centre
+                        int other = (2 * cy + 1 - ny) * (width + 1) + (2 * cx + 1 - nx);
+                        if (label[other] == 0) {
+                            label[other] = labels;
+                            visited.add(other);
+                            queue.add(other);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int y = 0; y < h && !loop; y++) {
+            for (int x = 0; x < w; x++) {
+                int code = window[y * w + x];
+                int a = (code == PackedBoard.FORWARD) ? y * (w + 1) + x + 1 : y * (w + 1) + x;
+                int b = (code == PackedBoard.FORWARD) ? (y + 1) * (w + 1) + x : (y + 1) * (w + 1) + x + 1;
+                if (!windowNodes.union(a, b)) {
+                    loop = true;
+                    break;
+                }
+            }
+        }
+
+        for (int node : visited) {
+            label[node] = 0; // Clean for the next window
+        }
+        return loop;
+    }
+
+    /**
+     * @return a copy of the cached completion, or null if there is none.
+     */
+    synchronized byte[] getCompletion() {
+        return (completion == null) ? null : completion.clone();
+    }
+
+    // Amortised O(1): the cursor passes each placed cell once per clear
+    private int firstEmpty(SlantModel board) {
+        while (cursor < completion.length && board.getSlant(cursor % width, cursor / width) != Slant.EMPTY) {
+            cursor++;
+        }
+        if (cursor == completion.length)
+            return -1;
+        return cursor << 2 | completion[cursor];
+    }
+}
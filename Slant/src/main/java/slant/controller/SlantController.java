@@ -1,18 +1,29 @@
 package slant.controller;
 
+import slant.algorithm.DivideAndConquer;
+import slant.generator.PuzzleGenerator;
+import slant.io.GameId;
+import slant.model.Hint;
+import slant.model.HintEngine;
+import slant.model.Puzzle;
 import slant.model.SlantModel;
 import slant.model.Player;
 import slant.model.Slant;
+import slant.solver.SolverBackend;
 import slant.view.SlantPanel;
 
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
-import java.awt.Point;
-import java.util.List;
-import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class SlantController {
     private SlantModel model;
     private SlantPanel view;
+    private final CompletionCache completionCache; // BACKTRACKING solution across turns
+    private final HintEngine hintEngine;
 
     private Timer gameTimer;
     private int elapsedSeconds;
@@ -21,6 +32,8 @@ public class SlantController {
 
     public SlantController(SlantModel model) {
         this.model = model;
+        this.completionCache = new CompletionCache(model);
+        this.hintEngine = new HintEngine(model);
 
         gameTimer = new Timer(1000, e -> {
             elapsedSeconds++;
@@ -31,11 +44,59 @@ public class SlantController {
     }
 
     public void startNewGame(int width, int height) {
+        startNewGame(width, height, PuzzleGenerator.newSeed());
+    }
+
+    /**
+     * Starts a new game on the puzzle generated for the size, the model's
+     * difficulty and the seed. The same three always give the same puzzle.
+     */
+    public void startNewGame(int width, int height, long seed) {
+        beginGame(PuzzleGenerator.generate(width, height, model.getDifficulty(), seed));
+    }
+
+    /**
+     * Starts a new game on the given puzzle, resizing the board if needed.
+     * A puzzle without its solution (e.g. from a game ID) is solved first
+     * with the current solver backend, since the CPU strategies and
+     * solveGame() read the stored solution.
+     *
+     * @throws IllegalArgumentException if the clues have no solution.
+     */
+    public void importPuzzle(Puzzle puzzle) {
+        if (!puzzle.hasSolution()) {
+            byte[] clues = puzzle.getClueCodes();
+            byte[] solution = solverBackend.solve(puzzle.getWidth(), puzzle.getHeight(), clues, null);
+            if (solution == null)
+                throw new IllegalArgumentException("Puzzle has no solution");
+            puzzle = new Puzzle(puzzle.getWidth(), puzzle.getHeight(), clues, solution);
+        }
+        beginGame(puzzle);
+    }
+
+    /**
+     * Starts a new game from a Tatham-style game ID (see {@link GameId}).
+     *
+     * @throws IllegalArgumentException if the ID is malformed or unsolvable.
+     */
+    public void importGameId(String id) {
+        importPuzzle(GameId.decode(id));
+    }
+
+    /**
+     * @return the game ID of the current clues.
+     */
+    public String exportGameId() {
+        return GameId.encode(model.exportPuzzle());
+    }
+
+    private void beginGame(Puzzle puzzle) {
+        cancelCpuMove();
         stopGameTimer();
         elapsedSeconds = 0;
         score = 0;
         isTimerRunning = false;
-        model.reset(width, height);
+        model.loadPuzzle(puzzle);
         if (view != null) {
             view.updateBoardSize();
             view.repaint();
@@ -76,14 +137,28 @@ public class SlantController {
     }
 
     public void solveGame() {
+        cancelCpuMove();
         stopGameTimer();
         model.solve();
         if (view != null) {
-            view.repaint();
             view.updateStatus();
         }
     }
 
+    /**
+     * Marks the next forced cell on the board without playing it.
+     *
+     * @return the hint, or null if the grid is full.
+     */
+    public Hint showHint() {
+        Hint hint = hintEngine.nextHint();
+        if (view != null) {
+            view.showHint(hint);
+            view.updateStatus();
+        }
+        return hint;
+    }
+
     public void setView(SlantPanel view) {
         this.view = view;
     }
@@ -100,8 +175,8 @@ public class SlantController {
 
         model.setSlant(x, y, requestedSlant);
 
+        // The view repaints the changed cell itself via its BoardListener
         if (view != null) {
-            view.repaint();
             view.updateStatus();
         }
 
@@ -126,43 +201,152 @@ public class SlantController {
         }
     }
 
+    // === CPU TURN ===
+    // Moves that cost O(1) on the live model (GREEDY, and BACKTRACKING while
+    // the cached completion still holds) are chosen on the EDT. Anything
+    // longer runs off the EDT on a snapshot of the model, so the window stays
+    // responsive, with the strategy and solver read once on the EDT; the
+    // chosen cell is applied back on the EDT. Starting a new game (or
+    // solving) bumps cpuGeneration, which drops any search still running
+    // for the old position, and sets its cancellation flag, which stops its
+    // solver at the next search node.
+    // Moves are encoded as cell << 2 | value, cell = y * width + x, and -1
+    // when there is none.
+
+    private static final int CPU_MOVE_DELAY_MS = 1000; // Pause before the CPU answers
+    private static final int SEARCH_NEEDED = -2; // No O(1) answer; search a snapshot
+
+    private final ExecutorService cpuExecutor = newCpuExecutor();
+    private Future<?> cpuSearch;
+    private AtomicBoolean cpuCancelled; // flag of the running search
+    private int cpuGeneration;
+
+    /**
+     * Virtual threads where the runtime has them (Java 21+), otherwise a
+     * pool of daemon threads. A cancelled search may still be finishing
+     * when the next one starts, so the fallback is not a single thread.
+     */
+    private static ExecutorService newCpuExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "cpu-player");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private void cancelCpuMove() {
+        cpuGeneration++;
+        if (cpuCancelled != null) {
+            cpuCancelled.set(true); // The solver stops at its next node
+            cpuCancelled = null;
+        }
+        if (cpuSearch != null) {
+            // Not interrupted: the strategies never block, and the stale
+            // result is dropped by the generation check
+            cpuSearch.cancel(false);
+            cpuSearch = null;
+        }
+    }
+
     private void triggerCpuMove() {
-        Timer cpuDelayTimer = new Timer(1000, e -> {
-            try {
-                boolean moved = makeCpuMove();
-                if (view != null) {
-                    view.repaint();
-                    view.updateStatus();
-                }
+        int generation = cpuGeneration;
+        long start = System.nanoTime();
+        CpuStrategy strategy = currentStrategy;
+        SolverBackend backend = solverBackend;
+
+        int quick = quickCpuMove(strategy);
+        if (quick != SEARCH_NEEDED) {
+            scheduleCpuMove(generation, start, quick);
+            return;
+        }
 
-                if (model.isSolved()) {
-                    stopGameTimer();
-                    showVictory(Player.CPU, "CPU completed the puzzle.");
-                } else if (model.isGridFull()) {
-                    stopGameTimer();
-                    String reason = "Grid full but incorrect.";
-                    if (model.hasLoops()) {
-                        reason = "Grid full, but a LOOP exists!";
-                    } else if (!model.areAllCluesSatisfied()) {
-                        reason = "Grid full, but some CLUES are wrong!";
-                    }
-                    showVictory(Player.CPU, reason);
-                } else if (moved) {
-                    model.switchTurn();
-                    if (view != null)
-                        view.updateStatus();
-                } else {
-                    // CPU failed to find a move — switch turn back to human
-                    model.switchTurn();
-                    if (view != null)
-                        view.updateStatus();
+        SlantModel snapshot = model.snapshot();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        cpuCancelled = cancelled;
+        cpuSearch = cpuExecutor.submit(() -> {
+            int move = chooseCpuMove(snapshot, strategy, backend, cancelled);
+            SwingUtilities.invokeLater(() -> scheduleCpuMove(generation, start, move));
+        });
+    }
+
+    /**
+     * Answers the strategies that are O(1) on the live model (EDT).
+     *
+     * @return the move, -1 if there is none, or SEARCH_NEEDED.
+     */
+    private int quickCpuMove(CpuStrategy strategy) {
+        switch (strategy) {
+            case GREEDY:
+                return greedyMove(model);
+            case BACKTRACKING:
+                int move = completionCache.cachedMove(model);
+                if (move == CompletionCache.SOLVE_NEEDED)
+                    return SEARCH_NEEDED;
+                return (move >= 0) ? move : greedyMove(model);
+            default:
+                return SEARCH_NEEDED;
+        }
+    }
+
+    // Applies the move once CPU_MOVE_DELAY_MS have passed since start (EDT)
+    private void scheduleCpuMove(int generation, long start, int move) {
+        if (generation != cpuGeneration)
+            return;
+        int remaining = CPU_MOVE_DELAY_MS - (int) ((System.nanoTime() - start) / 1_000_000);
+        if (remaining > 0) {
+            Timer cpuDelayTimer = new Timer(remaining, e -> finishCpuMove(generation, move));
+            cpuDelayTimer.setRepeats(false);
+            cpuDelayTimer.start();
+        } else {
+            finishCpuMove(generation, move);
+        }
+    }
+
+    // Applies the CPU's move on the EDT and ends its turn
+    private void finishCpuMove(int generation, int move) {
+        if (generation != cpuGeneration)
+            return;
+        cpuSearch = null;
+        cpuCancelled = null;
+        try {
+            boolean moved = false;
+            if (move >= 0 && isEmptyCell(model, move >> 2)) {
+                applyMove(model, move);
+                moved = true;
+            }
+            if (view != null) {
+                view.updateStatus();
+            }
+
+            if (model.isSolved()) {
+                stopGameTimer();
+                showVictory(Player.CPU, "CPU completed the puzzle.");
+            } else if (model.isGridFull()) {
+                stopGameTimer();
+                String reason = "Grid full but incorrect.";
+                if (model.hasLoops()) {
+                    reason = "Grid full, but a LOOP exists!";
+                } else if (!model.areAllCluesSatisfied()) {
+                    reason = "Grid full, but some CLUES are wrong!";
                 }
-            } catch (Throwable t) {
-                t.printStackTrace();
+                showVictory(Player.CPU, reason);
+            } else if (moved) {
+                model.switchTurn();
+                if (view != null)
+                    view.updateStatus();
+            } else {
+                // CPU failed to find a move — switch turn back to human
+                model.switchTurn();
+                if (view != null)
+                    view.updateStatus();
             }
-        });
-        cpuDelayTimer.setRepeats(false);
-        cpuDelayTimer.start();
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
     }
 
     // =========================
@@ -180,34 +364,60 @@ public class SlantController {
         this.currentStrategy = strategy;
     }
 
-    private boolean makeCpuMove() {
-        boolean moved = false;
+    // Solver used by the BACKTRACKING strategy
+    private SolverBackend solverBackend = SolverBackend.PARALLEL;
+
+    public void setSolverBackend(SolverBackend backend) {
+        this.solverBackend = backend;
+    }
+
+    /**
+     * Plays one CPU move on the live model with the current strategy, on
+     * the calling thread and without switching turns.
+     *
+     * @return true if a cell was placed.
+     */
+    public boolean makeCpuMove() {
+        int move = chooseCpuMove(model, currentStrategy, solverBackend, null);
+        if (move < 0)
+            return false;
+        applyMove(model, move);
+        return true;
+    }
+
+    /**
+     * Runs a strategy on the given model (the live one or a snapshot)
+     * without changing its cells.
+     *
+     * @param cancelled stops the BACKTRACKING solver when set, or null.
+     * @return the move, or -1 if there is none.
+     */
+    private int chooseCpuMove(SlantModel board, CpuStrategy strategy, SolverBackend backend,
+            AtomicBoolean cancelled) {
+        int move = -1;
 
         try {
-            switch (currentStrategy) {
+            switch (strategy) {
                 case GREEDY:
-                    moved = makeCpuMoveGreedy();
+                    move = greedyMove(board);
                     break;
                 case BACKTRACKING:
-                    moved = makeCpuMoveBacktracking();
-                    if (!moved && !model.isGridFull()) {
-                        moved = makeCpuMoveGreedy();
+                    move = backtrackingMove(board, backend, cancelled);
+                    if (move < 0 && !board.isGridFull()) {
+                        move = greedyMove(board);
                     }
                     break;
                 case DIVIDE_AND_CONQUER:
                 default:
-                    moved = makeCpuMoveDnC();
+                    move = divideAndConquerMove(board);
 
-                    if (!moved && !model.isGridFull()) {
-                        moved = makeCpuMoveGreedy();
+                    if (move < 0 && !board.isGridFull()) {
+                        move = greedyMove(board);
                     }
-                    if (!moved && !model.isGridFull()) {
-                        for (int y = 0; y < model.getHeight(); y++) {
-                            for (int x = 0; x < model.getWidth(); x++) {
-                                if (model.getSlant(x, y) == Slant.EMPTY) {
-                                    model.setSlant(x, y, model.getSolutionAt(x, y));
-                                    return true;
-                                }
+                    if (move < 0 && !board.isGridFull()) {
+                        for (int cell = 0; cell < board.getWidth() * board.getHeight(); cell++) {
+                            if (isEmptyCell(board, cell)) {
+                                return solutionMove(board, cell);
                             }
                         }
                     }
@@ -217,298 +427,128 @@ public class SlantController {
             e.printStackTrace();
         }
 
-        return moved;
-    }
-
-    // --- STRATEGY 1: GREEDY (Review 1) ---
-    // Algorithm: Linear scan of all empty cells, sort by heuristic, pick best.
-    private boolean makeCpuMoveGreedy() {
-        List<Point> emptyCells = new ArrayList<>();
-
-        for (int y = 0; y < model.getHeight(); y++) {
-            for (int x = 0; x < model.getWidth(); x++) {
-                if (model.getSlant(x, y) == Slant.EMPTY) {
-                    emptyCells.add(new Point(x, y));
-                }
-            }
-        }
-
-        if (emptyCells.isEmpty())
-            return false;
-
-        sortMoves(emptyCells);
-
-        Point p = emptyCells.get(0);
-
-        Slant correct = model.getSolutionAt(p.x, p.y);
-        model.setSlant(p.x, p.y, correct);
-        return true;
+        return move;
     }
 
-    // STRATEGY 2: DIVIDE & CONQUER (Review 2)
-    // Time Complexity: T(N) = 4T(N/4) + O(N) (for merge) -> O(N log N) where N is
-
-    private boolean makeCpuMoveDnC() {
-        List<Point> sortedMoves = getRankedMovesDnC(0, 0, model.getWidth(), model.getHeight());
-
-        if (sortedMoves.isEmpty())
-            return false;
-
-        Point p = sortedMoves.get(0);
-
-        Slant correct = model.getSolutionAt(p.x, p.y);
-        model.setSlant(p.x, p.y, correct);
-        return true;
+    private static boolean isEmptyCell(SlantModel board, int cell) {
+        return board.getSlant(cell % board.getWidth(), cell / board.getWidth()) == Slant.EMPTY;
     }
 
-    private List<Point> getRankedMovesDnC(int x, int y, int w, int h) {
-
-        if (w <= 1 || h <= 1) { // Process single row/col/cell directly
-            List<Point> localMoves = new ArrayList<>();
-            for (int iy = y; iy < y + h; iy++) {
-                for (int ix = x; ix < x + w; ix++) {
-                    if (model.getSlant(ix, iy) == Slant.EMPTY) {
-                        localMoves.add(new Point(ix, iy));
-                    }
-                }
-            }
-
-            sortMoves(localMoves);
-            return localMoves;
-        }
-
-        int midW = w / 2;
-        int midH = h / 2;
-
-        if (midW == 0)
-            midW = 1;
-        if (midH == 0)
-            midH = 1;
-
-        int remainW = w - midW;
-        int remainH = h - midH;
-
-        List<Point> topLeft = getRankedMovesDnC(x, y, midW, midH);
-        List<Point> topRight = remainW > 0 ? getRankedMovesDnC(x + midW, y, remainW, midH) : new ArrayList<>();
-        List<Point> bottomLeft = remainH > 0 ? getRankedMovesDnC(x, y + midH, midW, remainH) : new ArrayList<>();
-        List<Point> bottomRight = (remainW > 0 && remainH > 0) ? getRankedMovesDnC(x + midW, y + midH, remainW, remainH)
-                : new ArrayList<>();
-
-        return mergeAvailableMoves(topLeft, topRight, bottomLeft, bottomRight);
+    // The stored solution's value for the cell, as a move
+    private static int solutionMove(SlantModel board, int cell) {
+        Slant correct = board.getSolutionAt(cell % board.getWidth(), cell / board.getWidth());
+        return cell << 2 | correct.ordinal();
     }
 
-    @SafeVarargs
-    private final List<Point> mergeAvailableMoves(List<Point>... lists) {
-        List<Point> result = new ArrayList<>();
-        for (List<Point> list : lists) {
-            result.addAll(list);
-        }
-
-        sortMoves(result);
-        return result;
+    private static void applyMove(SlantModel board, int move) {
+        int cell = move >> 2;
+        board.setSlant(cell % board.getWidth(), cell / board.getWidth(), Slant.values()[move & 3]);
     }
 
-    // Sorts a list of moves based on the heuristic (highest score first)
-    private void sortMoves(List<Point> moves) {
-        List<Point> sorted = mergeSort(moves);
-        moves.clear();
-        moves.addAll(sorted);
+    // --- STRATEGY 1: GREEDY (Review 1) ---
+    // Algorithm: Pick the empty cell with the most clued corners (the first
+    // in row-major order on ties). The model keeps the empty cells bucketed
+    // by that score as moves are made, so there is nothing to scan or sort.
+    // Time Complexity: O(1) per move.
+    private int greedyMove(SlantModel board) {
+        int cell = board.getBestEmptyCell();
+        if (cell < 0)
+            return -1;
+        return solutionMove(board, cell);
     }
 
-    // Custom Merge Sort Implementation (Divide & Conquer Sorting)
-    private List<Point> mergeSort(List<Point> list) {
-        if (list.size() <= 1) {
-            return list;
-        }
-
-        int mid = list.size() / 2;
-        List<Point> left = new ArrayList<>(list.subList(0, mid));
-        List<Point> right = new ArrayList<>(list.subList(mid, list.size()));
-
-        return merge(mergeSort(left), mergeSort(right));
+    // STRATEGY 2: DIVIDE & CONQUER (Review 2)
+    // Divide: split the region into 4 quadrants until it is a single row or
+    // column. Conquer: write that strip's cells as moves. Combine: each
+    // region owns the slice of its area and its quadrants' slices follow one
+    // another, so concatenation is free. Ranking the result is one stable
+    // counting sort on the score (0-4): ties keep quadrant order, exactly
+    // as merging the quadrants' rankings would, with no comparisons at all.
+    // Moves are ints (key << SCORE_SHIFT | cell): one board-sized array,
+    // sorted through a scratch array of the same size, then the empty cells
+    // are copied out as the result.
+    // Time Complexity: T(N) = 4T(N/4) + O(1) -> O(N), plus O(N) to rank.
+
+    private static final int SCORE_SHIFT = 28; // Boards up to 2^28 cells
+    private static final int CELL_MASK = (1 << SCORE_SHIFT) - 1;
+    private static final int MAX_SCORE = 4; // Clued corners of a cell
+    private static final int FILLED_KEY = MAX_SCORE + 1; // Sorts after every empty cell
+
+    private int divideAndConquerMove(SlantModel board) {
+        int[] rankedMoves = getRankedMovesDnC(board);
+
+        if (rankedMoves.length == 0)
+            return -1;
+        return solutionMove(board, rankedMoves[0]);
     }
 
-    private List<Point> merge(List<Point> left, List<Point> right) {
-        List<Point> merged = new ArrayList<>();
-        int i = 0, j = 0;
-
-        while (i < left.size() && j < right.size()) {
-            Point p1 = left.get(i);
-            Point p2 = right.get(j);
-
-            int c1 = countAdjacentClues(p1.x, p1.y);
-            int c2 = countAdjacentClues(p2.x, p2.y);
-
-            if (c1 >= c2) {
-                merged.add(p1);
-                i++;
-            } else {
-                merged.add(p2);
-                j++;
-            }
-        }
-
-        while (i < left.size()) {
-            merged.add(left.get(i++));
-        }
-        while (j < right.size()) {
-            merged.add(right.get(j++));
-        }
+    /**
+     * @return the empty cells (y * width + x), best first.
+     */
+    private int[] getRankedMovesDnC(SlantModel board) {
+        int cells = board.getWidth() * board.getHeight();
+        int[] moves = new int[cells];
+        writeRegion(board, moves, 0, 0, board.getWidth(), board.getHeight(), 0);
 
-        return merged;
-    }
+        // Highest score first: the key is MAX_SCORE - score
+        DivideAndConquer.countingSort(moves, 0, cells, new int[cells], FILLED_KEY + 1,
+                move -> move >>> SCORE_SHIFT);
 
-    private int countAdjacentClues(int x, int y) {
         int count = 0;
-        if (isValidNode(x, y) && model.getClue(x, y) != null)
+        while (count < cells && (moves[count] >>> SCORE_SHIFT) != FILLED_KEY) {
             count++;
-
-        if (isValidNode(x + 1, y) && model.getClue(x + 1, y) != null)
-            count++;
-
-        if (isValidNode(x, y + 1) && model.getClue(x, y + 1) != null)
-            count++;
-
-        if (isValidNode(x + 1, y + 1) && model.getClue(x + 1, y + 1) != null)
-            count++;
-        return count;
-    }
-
-    private boolean isValidNode(int x, int y) {
-
-        return x >= 0 && x <= model.getWidth() && y >= 0 && y <= model.getHeight();
-    }
-
-    // === STRATEGY 3: BACKTRACKING (Review 3) ===
-    // Recursive solver: tries placing slants and backtracks on constraint
-    // violation.
-    // Time Complexity: O(2^N) worst case, but pruned by constraint checks.
-    // The CPU only takes the FIRST move found by the solver.
-    private boolean makeCpuMoveBacktracking() {
-
-        // Find the first empty cell
-        for (int y = 0; y < model.getHeight(); y++) {
-            for (int x = 0; x < model.getWidth(); x++) {
-                if (model.getSlant(x, y) == Slant.EMPTY) {
-                    // Try solving from this cell using backtracking
-                    Slant result = backtrackFindMove(x, y);
-                    if (result != null) {
-                        Slant correct = model.getSolutionAt(x, y);
-                        model.setSlant(x, y, correct);
-                        return true;
-                    }
-                }
-            }
         }
-
-        return false;
-    }
-
-    /**
-     * Backtracking: Tries both slant directions for cell (x,y).
-     * Returns the valid slant direction, or null if neither works.
-     * Uses constraint checking (no loops + partial clue validation).
-     */
-    private Slant backtrackFindMove(int x, int y) {
-        // Try FORWARD first
-        model.setSlant(x, y, Slant.FORWARD);
-        if (isConstraintSatisfied(x, y)) {
-            // Check if we can continue solving recursively
-            if (backtrackSolve(x, y)) {
-                // Found a valid path! Undo the recursive moves but remember direction
-                undoAfter(x, y);
-                model.setSlant(x, y, Slant.EMPTY);
-                return Slant.FORWARD;
-            }
-        }
-        model.setSlant(x, y, Slant.EMPTY); // Backtrack!
-
-        // Try BACKWARD
-        model.setSlant(x, y, Slant.BACKWARD);
-        if (isConstraintSatisfied(x, y)) {
-            if (backtrackSolve(x, y)) {
-                undoAfter(x, y);
-                model.setSlant(x, y, Slant.EMPTY);
-                return Slant.BACKWARD;
-            }
+        int[] ranked = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranked[i] = moves[i] & CELL_MASK;
         }
-        model.setSlant(x, y, Slant.EMPTY); // Backtrack!
-
-        return null; // Neither direction works
+        return ranked;
     }
 
-    /**
-     * Recursive backtracking solver. Tries to fill cells after (startX, startY).
-     * Returns true if a valid configuration is found.
-     */
-    private boolean backtrackSolve(int startX, int startY) {
-        // Find next empty cell after current position
-        for (int y = startY; y < model.getHeight(); y++) {
-            int xStart = (y == startY) ? startX + 1 : 0;
-            for (int x = xStart; x < model.getWidth(); x++) {
-                if (model.getSlant(x, y) == Slant.EMPTY) {
-                    // Try FORWARD
-                    model.setSlant(x, y, Slant.FORWARD);
-                    if (isConstraintSatisfied(x, y) && backtrackSolve(x, y)) {
-                        return true;
-                    }
-                    model.setSlant(x, y, Slant.EMPTY); // Backtrack
-
-                    // Try BACKWARD
-                    model.setSlant(x, y, Slant.BACKWARD);
-                    if (isConstraintSatisfied(x, y) && backtrackSolve(x, y)) {
-                        return true;
-                    }
-                    model.setSlant(x, y, Slant.EMPTY); // Backtrack
-
-                    return false; // Neither works for this cell
-                }
-            }
+    // Writes the cells of one region into moves[offset..offset + w * h), in
+    // quadrant order. Each quadrant owns the slice after the previous one's.
+    private static void writeRegion(SlantModel board, int[] moves, int x, int y, int w, int h, int offset) {
+        if (w <= 1 || h <= 1) { // Process single row/col/cell directly
+            writeStrip(board, moves, x, y, w, h, offset);
+            return;
         }
-        // All cells filled successfully
-        return !model.hasLoops();
-    }
 
-    /**
-     * Checks constraints after placing a slant at (x, y):
-     * 1. No loops formed
-     * 2. Adjacent clues are not over-satisfied (partial validation)
-     */
-    private boolean isConstraintSatisfied(int x, int y) {
-        if (model.hasLoops())
-            return false;
+        int midW = w / 2;
+        int midH = h / 2;
+        int topRight = offset + midW * midH;
+        int bottomLeft = topRight + (w - midW) * midH;
+        int bottomRight = bottomLeft + midW * (h - midH);
+        writeRegion(board, moves, x, y, midW, midH, offset);
+        writeRegion(board, moves, x + midW, y, w - midW, midH, topRight);
+        writeRegion(board, moves, x, y + midH, midW, h - midH, bottomLeft);
+        writeRegion(board, moves, x + midW, y + midH, w - midW, h - midH, bottomRight);
+    }
 
-        // Check the 4 corner nodes of this cell for over-satisfaction
-        int[][] corners = { { x, y }, { x + 1, y }, { x, y + 1 }, { x + 1, y + 1 } };
-        for (int[] c : corners) {
-            if (isValidNode(c[0], c[1])) {
-                Integer clue = model.getClue(c[0], c[1]);
-                if (clue != null) {
-                    int current = model.getDPClueCount(c[0], c[1]);
-                    if (current > clue) {
-                        return false; // Over-satisfied = invalid
-                    }
-                }
+    private static void writeStrip(SlantModel board, int[] moves, int x, int y, int w, int h, int offset) {
+        int width = board.getWidth();
+        int i = offset;
+        for (int iy = y; iy < y + h; iy++) {
+            for (int ix = x; ix < x + w; ix++) {
+                int key = (board.getSlant(ix, iy) == Slant.EMPTY) ? MAX_SCORE - board.getMoveScore(ix, iy)
+                        : FILLED_KEY;
+                moves[i++] = key << SCORE_SHIFT | (iy * width + ix);
             }
         }
-        return true;
     }
 
-    /**
-     * Undoes all slant placements after position (startX, startY).
-     * Used to clean up after backtracking exploration.
-     */
-    private void undoAfter(int startX, int startY) {
-        for (int y = startY; y < model.getHeight(); y++) {
-            int xStart = (y == startY) ? startX + 1 : 0;
-            for (int x = xStart; x < model.getWidth(); x++) {
-                if (model.getSlant(x, y) != Slant.EMPTY) {
-                    // Only undo if this wasn't originally placed by the player
-                    // For safety, undo everything after our starting point
-                    model.setSlant(x, y, Slant.EMPTY);
-                }
-            }
-        }
+    // === STRATEGY 3: BACKTRACKING (Review 3) ===
+    // Solves the current position with the constraint-propagation solver
+    // (slant.solver): forced moves are deduced to a fixpoint and the solver
+    // only backtracks at genuine choice points. The PARALLEL backend splits
+    // those choice points across a ForkJoinPool.
+    // Time Complexity: O(2^N) worst case, but rarely more than propagation.
+    // The CPU only takes the FIRST empty cell of the completion found. The
+    // completion is kept for the next turns (see CompletionCache): while the
+    // human agrees with it a turn costs O(1), otherwise only a window
+    // around the disagreement is solved again, widening on failure.
+    // Returns -1 if the position has no consistent completion.
+    private int backtrackingMove(SlantModel board, SolverBackend backend, AtomicBoolean cancelled) {
+        return completionCache.nextMove(board, backend, cancelled);
     }
 
     private void showVictory(Player winner, String reason) {
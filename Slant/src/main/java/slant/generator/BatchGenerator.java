@@ -0,0 +1,233 @@
+package slant.generator;
+
+import slant.io.GameId;
+import slant.io.PuzzleFormat;
+import slant.io.PuzzleWriter;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless batch generation of puzzles on a pool of worker threads.
+ *
+ * Workers run {@link PuzzleGenerator} independently (each with its own
+ * thread-local RNG). Finished puzzles are handed to the sink on the calling
+ * thread in completion order, so the sink never needs to be thread-safe and
+ * output is streamed while generation is still running. Only a few puzzles
+ * per worker are in flight at any time, so memory stays flat for large N.
+ *
+ * Puzzle seeds are drawn in submission order from one {@link SplitMix64}
+ * stream, so a batch seed reproduces the same set of puzzles regardless of
+ * the thread count (only the output order depends on timing).
+ *
+ * Command line:
+ * <pre>
+ * java -cp out slant.generator.BatchGenerator --count 1000 --size 20x20
+ *      [--difficulty EASY|MEDIUM|HARD] [--mode UNIQUE|FAST] [--threads N] [--seed S]
+ *      [--format TEXT|BINARY] [--out puzzles.txt]
+ * </pre>
+ * Each puzzle is written as one game ID per line (see {@link GameId}), or
+ * with --format BINARY as a compact record with its solution (see
+ * {@link PuzzleFormat}); without --out the puzzles go to standard output. --mode defaults to
+ * {@link PuzzleGenerator#defaultMode(int, int)} for the board size. The throughput report is
+ * printed to standard error.
+ */
+public class BatchGenerator {
+    // Puzzles queued per worker, enough to keep every worker busy
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    /**
+     * Receives each puzzle as soon as it is finished.
+     */
+    public interface PuzzleSink {
+        void accept(Puzzle puzzle) throws IOException;
+    }
+
+    /**
+     * Outcome of one batch.
+     */
+    public static class Result {
+        private final int count;
+        private final long elapsedNanos;
+
+        Result(int count, long elapsedNanos) {
+            this.count = count;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getPuzzlesPerSecond() {
+            return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+        }
+    }
+
+    private final int width;
+    private final int height;
+    private final SlantModel.Difficulty difficulty;
+    private final int threads;
+    private final PuzzleGenerator.Mode mode;
+
+    /**
+     * @param threads number of worker threads, e.g. availableProcessors().
+     */
+    public BatchGenerator(int width, int height, SlantModel.Difficulty difficulty, int threads) {
+        this(width, height, difficulty, threads, PuzzleGenerator.defaultMode(width, height));
+    }
+
+    public BatchGenerator(int width, int height, SlantModel.Difficulty difficulty, int threads,
+            PuzzleGenerator.Mode mode) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Board must be at least 1x1");
+        if (threads < 1)
+            throw new IllegalArgumentException("Need at least one thread");
+        this.width = width;
+        this.height = height;
+        this.difficulty = difficulty;
+        this.threads = threads;
+        this.mode = mode;
+    }
+
+    /**
+     * Generates count puzzles and passes each one to the sink as it completes.
+     */
+    public Result generate(int count, PuzzleSink sink) throws IOException, InterruptedException {
+        return generate(count, PuzzleGenerator.newSeed(), sink);
+    }
+
+    /**
+     * Generates the reproducible batch of count puzzles for the batch seed.
+     */
+    public Result generate(int count, long seed, PuzzleSink sink) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        SplitMix64 seeds = new SplitMix64(seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "puzzle-generator");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Puzzle> completed = new ExecutorCompletionService<>(pool);
+        try {
+            int submitted = 0;
+            int inFlight = Math.min(count, threads * IN_FLIGHT_PER_THREAD);
+            for (; submitted < inFlight; submitted++) {
+                submit(completed, seeds.nextLong());
+            }
+
+            for (int done = 0; done < count; done++) {
+                Puzzle puzzle = take(completed);
+                if (submitted < count) {
+                    submit(completed, seeds.nextLong());
+                    submitted++;
+                }
+                sink.accept(puzzle);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(count, System.nanoTime() - start);
+    }
+
+    private void submit(CompletionService<Puzzle> completed, long puzzleSeed) {
+        completed.submit(() -> PuzzleGenerator.generate(width, height, difficulty, puzzleSeed, mode));
+    }
+
+    private static Puzzle take(CompletionService<Puzzle> completed) throws InterruptedException {
+        try {
+            return completed.take().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Puzzle generation failed", e.getCause());
+        }
+    }
+
+    // === COMMAND LINE ===
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count = 100;
+        int width = 10;
+        int height = 10;
+        SlantModel.Difficulty difficulty = SlantModel.Difficulty.MEDIUM;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = null;
+        long seed = PuzzleGenerator.newSeed();
+        PuzzleGenerator.Mode mode = null;
+        PuzzleFormat format = PuzzleFormat.TEXT;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--count":
+                    count = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--size":
+                    String[] size = require(args[i], value).toLowerCase().split("x");
+                    width = Integer.parseInt(size[0]);
+                    height = Integer.parseInt(size.length > 1 ? size[1] : size[0]);
+                    break;
+                case "--difficulty":
+                    difficulty = SlantModel.Difficulty.valueOf(require(args[i], value).toUpperCase());
+                    break;
+                case "--mode":
+                    mode = PuzzleGenerator.Mode.valueOf(require(args[i], value).toUpperCase());
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(require(args[i], value));
+                    break;
+                case "--format":
+                    format = PuzzleFormat.valueOf(require(args[i], value).toUpperCase());
+                    break;
+                case "--out":
+                    out = require(args[i], value);
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: BatchGenerator --count N --size WxH"
+                            + " [--difficulty EASY|MEDIUM|HARD] [--mode UNIQUE|FAST] [--threads N] [--seed S]"
+                            + " [--format TEXT|BINARY] [--out FILE]");
+                    System.exit(2);
+            }
+            i++;
+        }
+
+        if (mode == null) {
+            mode = PuzzleGenerator.defaultMode(width, height);
+        }
+        BatchGenerator generator = new BatchGenerator(width, height, difficulty, threads, mode);
+        PuzzleWriter writer = new PuzzleWriter((out == null) ? System.out : new FileOutputStream(out), format);
+        Result result;
+        try {
+            result = generator.generate(count, seed, writer::write);
+        } finally {
+            writer.flush();
+            if (out != null) {
+                writer.close();
+            }
+        }
+
+        System.err.printf("Generated %d %dx%d %s %s puzzles (seed %d) on %d threads in %.2f s (%.1f puzzles/s)%n",
+                result.getCount(), width, height, difficulty, mode, seed, threads,
+                result.getElapsedNanos() / 1e9, result.getPuzzlesPerSecond());
+    }
+
+    private static String require(String option, String value) {
+        if (value == null)
+            throw new IllegalArgumentException(option + " needs a value");
+        return value;
+    }
+}
@@ -0,0 +1,238 @@
+package slant.generator;
+
+import slant.algorithm.UnionFind;
+import slant.model.BoardStorage;
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+import slant.solver.SlantSolver;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates puzzles with exactly one solution.
+ *
+ * 1. Fill: a random loop-free grid becomes the solution.
+ * 2. Clues: every node starts with its clue; nodes are then visited in random
+ *    order and each clue is removed unless the puzzle would stop being unique.
+ *    Uniqueness is checked by counting solutions with an early exit at 2.
+ *    Removal stops once the clue density of the difficulty is reached, so
+ *    EASY keeps most clues and HARD goes down to a minimal set.
+ *
+ * Because the solution is unique, the stored solution is the only answer a
+ * player can reach.
+ *
+ * Every puzzle comes from a 64-bit seed through {@link SplitMix64}: the same
+ * size, difficulty and seed give the same puzzle on any machine, so a puzzle
+ * can be stored or shared as a single long. The fill and the clue removal
+ * draw from separate split streams. Unseeded calls pick a seed from the
+ * calling thread's {@link ThreadLocalRandom}, so several threads can generate
+ * at once without contending on a shared RNG.
+ *
+ * Uniqueness checking costs a solver run per node, which is fine for boards
+ * a player can solve but not for very large ones. Beyond
+ * {@link #MAX_UNIQUE_CELLS} the generator switches to {@link Mode#FAST}.
+ */
+public class PuzzleGenerator {
+
+    /**
+     * How clues are chosen once the solution grid is filled.
+     */
+    public enum Mode {
+        /** Greedy clue removal while the solution stays unique. */
+        UNIQUE,
+        /**
+         * Each clue is kept with the difficulty's probability, without a
+         * uniqueness check. The whole puzzle costs O(cells * α(cells)).
+         */
+        FAST
+    }
+
+    // Largest board (in cells) generated in UNIQUE mode by default
+    public static final int MAX_UNIQUE_CELLS = 40 * 40;
+
+    private PuzzleGenerator() {
+    }
+
+    /**
+     * Generates a puzzle whose clues have exactly one solution, from a
+     * random seed.
+     */
+    public static Puzzle generate(int width, int height, SlantModel.Difficulty difficulty) {
+        return generate(width, height, difficulty, newSeed());
+    }
+
+    /**
+     * Generates the puzzle for the given seed. Deterministic: the same
+     * arguments always give the same puzzle.
+     */
+    public static Puzzle generate(int width, int height, SlantModel.Difficulty difficulty, long seed) {
+        return generate(width, height, difficulty, seed, defaultMode(width, height));
+    }
+
+    /**
+     * Generates the puzzle for the given seed with an explicit mode.
+     */
+    public static Puzzle generate(int width, int height, SlantModel.Difficulty difficulty, long seed, Mode mode) {
+        SplitMix64 random = new SplitMix64(seed);
+        byte[] solution = fillValidGrid(width, height, random.split());
+        byte[] clues = (mode == Mode.UNIQUE)
+                ? generateClues(width, height, solution, difficulty, random.split())
+                : sampleClues(width, height, solution, difficulty, random.split());
+        return new Puzzle(width, height, clues, solution, seed);
+    }
+
+    /**
+     * Generates the puzzle for the seed straight into a board storage (e.g.
+     * a {@link slant.model.MappedBoard}), overwriting its clues and solution
+     * and clearing its cells. No {@link Puzzle} copy is made, so only the
+     * generator's own working arrays live on the heap.
+     */
+    public static void generateInto(BoardStorage board, SlantModel.Difficulty difficulty, long seed, Mode mode) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        SplitMix64 random = new SplitMix64(seed);
+        byte[] solution = fillValidGrid(width, height, random.split());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                board.setSolution(x, y, solution[y * width + x]);
+            }
+        }
+        byte[] clues = (mode == Mode.UNIQUE)
+                ? generateClues(width, height, solution, difficulty, random.split())
+                : sampleClues(width, height, solution, difficulty, random.split());
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x <= width; x++) {
+                board.setClue(x, y, clues[y * (width + 1) + x]);
+            }
+        }
+        board.clearCells();
+    }
+
+    /**
+     * @return UNIQUE up to {@link #MAX_UNIQUE_CELLS} cells, FAST beyond.
+     */
+    public static Mode defaultMode(int width, int height) {
+        return ((long) width * height <= MAX_UNIQUE_CELLS) ? Mode.UNIQUE : Mode.FAST;
+    }
+
+    /**
+     * @return a fresh random seed for {@link #generate(int, int, SlantModel.Difficulty, long)}.
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Fills every cell with a random diagonal without closing a loop.
+     *
+     * Cells are visited in a shuffled int order (no per-cell objects) and
+     * each choice is one union in a path-compressed Union-Find: a failed
+     * union means the diagonal would close a loop, and the other diagonal
+     * is then always safe. O(cells * α(cells)) overall.
+     *
+     * @return one cell code per cell (y * width + x).
+     */
+    static byte[] fillValidGrid(int width, int height, SplitMix64 random) {
+        byte[] cells = new byte[width * height];
+        int[] order = shuffledRange(cells.length, random);
+        UnionFind nodeSets = new UnionFind((width + 1) * (height + 1), true);
+
+        for (int cell : order) {
+            int x = cell % width;
+            int y = cell / width;
+            int code = random.nextBoolean() ? PackedBoard.FORWARD : PackedBoard.BACKWARD;
+
+            if (!nodeSets.union(edgeStart(width, x, y, code), edgeEnd(width, x, y, code))) {
+                // At most one diagonal of a cell can close a loop, so the other is safe
+                code = (code == PackedBoard.FORWARD) ? PackedBoard.BACKWARD : PackedBoard.FORWARD;
+                nodeSets.union(edgeStart(width, x, y, code), edgeEnd(width, x, y, code));
+            }
+            cells[cell] = (byte) code;
+        }
+        return cells;
+    }
+
+    /**
+     * Starts from a clue on every node and greedily removes clues while the
+     * solution stays unique, down to the clue density of the difficulty.
+     *
+     * @return one clue per node (y * (width + 1) + x), NO_CLUE for blanks.
+     */
+    static byte[] generateClues(int width, int height, byte[] solution, SlantModel.Difficulty difficulty,
+            SplitMix64 random) {
+        byte[] clues = countLines(width, height, solution);
+        int target = (int) Math.ceil(clues.length * difficulty.probability);
+        int remaining = clues.length;
+
+        for (int node : shuffledRange(clues.length, random)) {
+            if (remaining <= target)
+                break;
+            byte clue = clues[node];
+            clues[node] = PackedBoard.NO_CLUE;
+            if (SlantSolver.countSolutions(width, height, clues, null, 2) == 1) {
+                remaining--;
+            } else {
+                clues[node] = clue; // Needed to keep the solution unique
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * Keeps each node's clue with the difficulty's probability. Linear time,
+     * but the clues are not guaranteed to have a unique solution.
+     */
+    static byte[] sampleClues(int width, int height, byte[] solution, SlantModel.Difficulty difficulty,
+            SplitMix64 random) {
+        byte[] clues = countLines(width, height, solution);
+        for (int node = 0; node < clues.length; node++) {
+            if (random.nextDouble() >= difficulty.probability) {
+                clues[node] = PackedBoard.NO_CLUE;
+            }
+        }
+        return clues;
+    }
+
+    /**
+     * @return the number of lines touching every node in the given cells.
+     */
+    static byte[] countLines(int width, int height, byte[] cells) {
+        byte[] lines = new byte[(width + 1) * (height + 1)];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int code = cells[y * width + x];
+                if (code != PackedBoard.EMPTY) {
+                    lines[edgeStart(width, x, y, code)]++;
+                    lines[edgeEnd(width, x, y, code)]++;
+                }
+            }
+        }
+        return lines;
+    }
+
+    // Fisher-Yates shuffle of 0..n-1
+    private static int[] shuffledRange(int n, SplitMix64 random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+
+    // Node indices: y * (width + 1) + x
+    // FORWARD (/) connects (x+1, y) to (x, y+1); BACKWARD (\) connects (x, y) to (x+1, y+1)
+    private static int edgeStart(int width, int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? y * (width + 1) + (x + 1) : y * (width + 1) + x;
+    }
+
+    private static int edgeEnd(int width, int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? (y + 1) * (width + 1) + x : (y + 1) * (width + 1) + (x + 1);
+    }
+}
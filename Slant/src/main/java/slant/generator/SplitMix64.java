@@ -0,0 +1,72 @@
+package slant.generator;
+
+/**
+ * SplitMix64 pseudo-random generator (Steele, Lea and Flood).
+ *
+ * One 64-bit state advanced by a fixed odd constant and finalised with two
+ * multiply-xorshift rounds. It is fast, passes BigCrush, and is fully
+ * specified here, so a seed produces the same sequence on every JVM (unlike
+ * java.util.Random, whose algorithm the generator should not depend on, or
+ * ThreadLocalRandom, which cannot be seeded).
+ *
+ * {@link #split()} derives an independent generator, so separate phases of
+ * generation can draw from separate streams.
+ *
+ * Not thread-safe; give each thread its own instance.
+ */
+public class SplitMix64 {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * The SplitMix64 output function: a bijective mix of 64 bits.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * @return a uniform value in [0, bound), bound > 0.
+     */
+    public int nextInt(int bound) {
+        // Lemire's multiply-shift with rejection of the biased low range
+        long m = (nextLong() >>> 32) * bound;
+        if ((m & 0xFFFFFFFFL) < bound) {
+            long threshold = (0x100000000L - bound) % bound;
+            while ((m & 0xFFFFFFFFL) < threshold) {
+                m = (nextLong() >>> 32) * bound;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    /**
+     * @return a uniform value in [0, 1).
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return a new generator whose sequence is independent of this one.
+     */
+    public SplitMix64 split() {
+        return new SplitMix64(mix(nextLong()));
+    }
+}
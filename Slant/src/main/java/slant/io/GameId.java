@@ -0,0 +1,138 @@
+package slant.io;
+
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Text game IDs in the format of Simon Tatham's Slant: {@code WxH:desc}.
+ *
+ * The description lists the (W+1)x(H+1) nodes row by row. A clue is written
+ * as its digit and a run of blank nodes as one letter, 'a' for 1 blank up to
+ * 'z' for 26 (longer runs take several letters). The solution is not part
+ * of the ID; generated puzzles are unique, so any solver recovers it.
+ * Decoded puzzles therefore have an empty solution (every cell EMPTY).
+ */
+public class GameId {
+
+    // Per character: nodes covered (0 if not in the alphabet) and the value
+    // of the first one
+    private static final byte[] RUNS = new byte[256];
+    private static final byte[] VALUES = new byte[256];
+
+    static {
+        Arrays.fill(VALUES, PackedBoard.NO_CLUE);
+        for (char c = '0'; c <= '4'; c++) {
+            RUNS[c] = 1;
+            VALUES[c] = (byte) (c - '0');
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            RUNS[c] = (byte) (c - 'a' + 1);
+        }
+    }
+
+    private GameId() {
+    }
+
+    /**
+     * @return the game ID of the puzzle's clues, e.g. {@code 3x3:b1c2a0g}.
+     */
+    public static String encode(Puzzle puzzle) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(puzzle.getWidth()).append('x').append(puzzle.getHeight()).append(':');
+        int run = 0;
+        for (byte clue : puzzle.getClueCodes()) {
+            if (clue == PackedBoard.NO_CLUE) {
+                run++;
+                if (run == 26) {
+                    sb.append('z');
+                    run = 0;
+                }
+            } else {
+                if (run > 0) {
+                    sb.append((char) ('a' + run - 1));
+                    run = 0;
+                }
+                sb.append((char) ('0' + clue));
+            }
+        }
+        if (run > 0) {
+            sb.append((char) ('a' + run - 1));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses a game ID such as {@code 3x3:b1c2a0g}. Tatham's difficulty
+     * suffix on the parameters ({@code 3x3de:...}, {@code 3x3dh:...}) is
+     * accepted and ignored.
+     *
+     * @throws IllegalArgumentException if the ID is malformed or does not
+     *         describe exactly (W+1)x(H+1) nodes.
+     */
+    public static Puzzle decode(String id) {
+        byte[] bytes = id.getBytes(StandardCharsets.ISO_8859_1);
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parses a game ID straight from ASCII bytes, e.g. a line in a read
+     * buffer, without building a String.
+     */
+    public static Puzzle decode(byte[] buf, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+
+        long width = 0;
+        int start = i;
+        while (i < end && buf[i] >= '0' && buf[i] <= '9' && width <= Integer.MAX_VALUE) {
+            width = width * 10 + (buf[i++] - '0');
+        }
+        if (i == start || i == end || buf[i] != 'x')
+            throw malformed("Bad board size", buf, offset, length);
+        i++;
+        long height = 0;
+        start = i;
+        while (i < end && buf[i] >= '0' && buf[i] <= '9' && height <= Integer.MAX_VALUE) {
+            height = height * 10 + (buf[i++] - '0');
+        }
+        if (i == start)
+            throw malformed("Bad board size", buf, offset, length);
+        if (i + 1 < end && buf[i] == 'd') {
+            i += 2; // Difficulty, e.g. "de" or "dh"
+        }
+        if (i == end || buf[i] != ':')
+            throw malformed("Not a game ID", buf, offset, length);
+        i++;
+        if (width < 1 || height < 1 || (width + 1) * (height + 1) > Integer.MAX_VALUE - 8)
+            throw malformed("Unsupported board size", buf, offset, length);
+
+        // Start all blank, then every character stores one value and skips
+        // its run length: no branch on the character class
+        byte[] clues = new byte[(int) ((width + 1) * (height + 1))];
+        Arrays.fill(clues, PackedBoard.NO_CLUE);
+        int node = 0;
+        int bad = 0;
+        for (; i < end; i++) {
+            if (node >= clues.length)
+                throw malformed("Too many nodes", buf, offset, length);
+            int c = buf[i] & 0xFF;
+            clues[node] = VALUES[c];
+            node += RUNS[c];
+            bad |= RUNS[c] - 1; // Negative for characters outside the alphabet
+        }
+        if (bad < 0)
+            throw malformed("Unexpected character", buf, offset, length);
+        if (node != clues.length)
+            throw malformed(node + " nodes, expected " + clues.length, buf, offset, length);
+        return new Puzzle((int) width, (int) height, clues, new byte[(int) (width * height)]);
+    }
+
+    private static IllegalArgumentException malformed(String reason, byte[] buf, int offset, int length) {
+        // Long IDs are cut short in the message
+        String id = new String(buf, offset, Math.min(length, 80), StandardCharsets.ISO_8859_1);
+        return new IllegalArgumentException(reason + " in game ID: " + id + (length > 80 ? "..." : ""));
+    }
+}
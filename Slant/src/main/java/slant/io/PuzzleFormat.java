@@ -0,0 +1,30 @@
+package slant.io;
+
+/**
+ * File formats for puzzle collections.
+ *
+ * TEXT is one Tatham-style game ID per line (see {@link GameId}), clues only.
+ *
+ * BINARY starts with the 4-byte magic "SLNB" and a version byte, followed by
+ * one record per puzzle:
+ * <pre>
+ * varint  width                  unsigned LEB128
+ * varint  height
+ * byte    flags                  bit 0: solution present
+ * bits    3 per node             clue 0-4, 7 for no clue, row by row
+ * bits    2 per cell             solution cell codes, if present
+ * </pre>
+ * The bits are packed least significant first, and each bit section is
+ * padded to a whole byte so that readers can decode whole bytes at once
+ * (8 clues per 3 bytes, 4 cells per byte). A 10x10 puzzle with its
+ * solution takes 74 bytes, about as much as its game ID without one.
+ */
+public enum PuzzleFormat {
+    TEXT,
+    BINARY;
+
+    static final byte[] MAGIC = { 'S', 'L', 'N', 'B' };
+    static final int VERSION = 1;
+    static final int FLAG_SOLUTION = 1;
+    static final int NO_CLUE_BITS = 7;
+}
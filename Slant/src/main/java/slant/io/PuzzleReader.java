@@ -0,0 +1,333 @@
+package slant.io;
+
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams puzzles from a file or stream, one at a time.
+ *
+ * The format is detected from the first bytes: the BINARY magic, otherwise
+ * TEXT (see {@link PuzzleFormat}). Input is read in large blocks into one
+ * reusable buffer and parsed in place: game IDs are decoded straight from
+ * the bytes and binary records straight from the bits, so memory stays flat
+ * for any number of puzzles and parsing keeps up with the disk.
+ *
+ * In TEXT, blank lines and lines starting with '#' are skipped, and
+ * anything after the first space or tab of a line is ignored (so the output
+ * of BatchSolver reads back as its puzzles).
+ *
+ * Not thread-safe.
+ */
+public class PuzzleReader implements Closeable, Iterable<Puzzle> {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_HEADER_BYTES = 11; // two 5-byte varints and the flags
+
+    // 3-bit clue codes: 0-4 are clues, 7 is no clue, 5 and 6 are invalid.
+    // CLUE_GROUPS maps 12 bits (4 codes) to 4 clue bytes, little-endian;
+    // INVALID_GROUPS is 1 where any of the 4 codes is invalid.
+    private static final int[] CLUE_GROUPS = new int[1 << 12];
+    private static final byte[] INVALID_GROUPS = new byte[1 << 12];
+    // CELL_GROUPS maps one byte (4 cell codes) to 4 cell bytes
+    private static final int[] CELL_GROUPS = new int[1 << 8];
+
+    static {
+        for (int bits = 0; bits < CLUE_GROUPS.length; bits++) {
+            int group = 0;
+            for (int k = 0; k < 4; k++) {
+                int code = (bits >>> (3 * k)) & 7;
+                int clue = (code == PuzzleFormat.NO_CLUE_BITS) ? PackedBoard.NO_CLUE & 0xFF : code;
+                group |= clue << (8 * k);
+                if (code == 5 || code == 6) {
+                    INVALID_GROUPS[bits] = 1;
+                }
+            }
+            CLUE_GROUPS[bits] = group;
+        }
+        for (int bits = 0; bits < CELL_GROUPS.length; bits++) {
+            int group = 0;
+            for (int k = 0; k < 4; k++) {
+                group |= ((bits >>> (2 * k)) & 3) << (8 * k);
+            }
+            CELL_GROUPS[bits] = group;
+        }
+    }
+
+    private final InputStream in;
+    private final PuzzleFormat format;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    public PuzzleReader(InputStream in) throws IOException {
+        this.in = in;
+        int header = PuzzleFormat.MAGIC.length + 1;
+        if (fill(header) >= header && hasMagic()) {
+            int version = buffer[position + PuzzleFormat.MAGIC.length];
+            if (version != PuzzleFormat.VERSION)
+                throw new IOException("Unsupported puzzle file version " + version);
+            position += header;
+            format = PuzzleFormat.BINARY;
+        } else {
+            format = PuzzleFormat.TEXT;
+        }
+    }
+
+    public static PuzzleReader open(Path file) throws IOException {
+        return new PuzzleReader(Files.newInputStream(file));
+    }
+
+    public PuzzleFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the next puzzle, or null at the end of the input.
+     * @throws IOException if the input is malformed or cannot be read.
+     */
+    public Puzzle read() throws IOException {
+        return (format == PuzzleFormat.TEXT) ? readText() : readBinary();
+    }
+
+    private boolean hasMagic() {
+        for (int i = 0; i < PuzzleFormat.MAGIC.length; i++) {
+            if (buffer[position + i] != PuzzleFormat.MAGIC[i])
+                return false;
+        }
+        return true;
+    }
+
+    // === TEXT ===
+
+    private Puzzle readText() throws IOException {
+        while (true) {
+            int scan = position;
+            int newline = -1;
+            while (newline < 0) {
+                for (; scan < limit; scan++) {
+                    if (buffer[scan] == '\n') {
+                        newline = scan;
+                        break;
+                    }
+                }
+                if (newline >= 0 || endOfInput)
+                    break;
+                int scanned = scan - position;
+                fill(scanned + 1);
+                scan = position + scanned;
+            }
+
+            int lineStart = position;
+            int lineEnd = (newline >= 0) ? newline : limit;
+            if (newline < 0 && lineStart == lineEnd)
+                return null; // End of input
+            position = (newline >= 0) ? newline + 1 : limit;
+
+            int idEnd = lineStart;
+            while (idEnd < lineEnd && buffer[idEnd] != ' ' && buffer[idEnd] != '\t' && buffer[idEnd] != '\r') {
+                idEnd++;
+            }
+            if (idEnd == lineStart || buffer[lineStart] == '#')
+                continue;
+            try {
+                return GameId.decode(buffer, lineStart, idEnd - lineStart);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+        }
+    }
+
+    // === BINARY ===
+
+    private Puzzle readBinary() throws IOException {
+        int available = fill(MAX_HEADER_BYTES);
+        if (available == 0)
+            return null;
+
+        int p = position;
+        int end = position + available;
+        long width = 0;
+        long height = 0;
+        for (int shift = 0;; shift += 7) {
+            if (p == end || shift > 28)
+                throw new EOFException("Truncated puzzle record");
+            int b = buffer[p++];
+            width |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                break;
+        }
+        for (int shift = 0;; shift += 7) {
+            if (p == end || shift > 28)
+                throw new EOFException("Truncated puzzle record");
+            int b = buffer[p++];
+            height |= (long) (b & 0x7F) << shift;
+            if (b >= 0)
+                break;
+        }
+        if (p == end)
+            throw new EOFException("Truncated puzzle record");
+        int flags = buffer[p++];
+        if (width < 1 || height < 1 || (width + 1) * (height + 1) > Integer.MAX_VALUE - 8)
+            throw new IOException("Bad board size " + width + "x" + height);
+
+        int nodes = (int) ((width + 1) * (height + 1));
+        int cells = (int) (width * height);
+        boolean withSolution = (flags & PuzzleFormat.FLAG_SOLUTION) != 0;
+        int headerBytes = p - position;
+        long clueBytes = (3L * nodes + 7) >>> 3;
+        long recordBytes = headerBytes + clueBytes + (withSolution ? (cells + 3L) >>> 2 : 0);
+        if (recordBytes > Integer.MAX_VALUE - 8)
+            throw new IOException("Puzzle record too large");
+        if (fill((int) recordBytes) < recordBytes)
+            throw new EOFException("Truncated puzzle record");
+        p = position + headerBytes;
+
+        byte[] clues = new byte[nodes];
+        byte[] solution = new byte[cells];
+        int invalid = decodeClues(p, clues);
+        if (withSolution) {
+            invalid |= decodeCells(p + (int) clueBytes, solution);
+        }
+        if (invalid != 0)
+            throw new IOException("Corrupt puzzle record");
+        position += (int) recordBytes;
+        return new Puzzle((int) width, (int) height, clues, solution);
+    }
+
+    /**
+     * Decodes 3-bit clues from byte p on: 8 clues per 3 bytes, through a
+     * table that expands 12 bits into 4 clue bytes.
+     *
+     * @return non-zero if an invalid code (5 or 6) was found.
+     */
+    private int decodeClues(int p, byte[] clues) {
+        ByteBuffer out = ByteBuffer.wrap(clues).order(ByteOrder.LITTLE_ENDIAN);
+        int invalid = 0;
+        int i = 0;
+        for (; i + 8 <= clues.length; i += 8) {
+            int bits = (buffer[p] & 0xFF) | (buffer[p + 1] & 0xFF) << 8 | (buffer[p + 2] & 0xFF) << 16;
+            p += 3;
+            out.putInt(i, CLUE_GROUPS[bits & 0xFFF]);
+            out.putInt(i + 4, CLUE_GROUPS[bits >>> 12]);
+            invalid |= INVALID_GROUPS[bits & 0xFFF] | INVALID_GROUPS[bits >>> 12];
+        }
+        // The last few clues one at a time
+        int bits = 0;
+        int count = 0;
+        for (; i < clues.length; i++) {
+            if (count < 3) {
+                bits |= (buffer[p++] & 0xFF) << count;
+                count += 8;
+            }
+            int code = bits & 7;
+            bits >>>= 3;
+            count -= 3;
+            clues[i] = (byte) (CLUE_GROUPS[code] & 0xFF);
+            invalid |= INVALID_GROUPS[code];
+        }
+        return invalid;
+    }
+
+    /**
+     * Decodes 2-bit cell codes from byte p on: 4 cells per byte.
+     *
+     * @return non-zero if an invalid code (3) was found.
+     */
+    private int decodeCells(int p, byte[] cells) {
+        ByteBuffer out = ByteBuffer.wrap(cells).order(ByteOrder.LITTLE_ENDIAN);
+        int invalid = 0;
+        int i = 0;
+        for (; i + 4 <= cells.length; i += 4) {
+            int bits = buffer[p++] & 0xFF;
+            out.putInt(i, CELL_GROUPS[bits]);
+            invalid |= bits & (bits >>> 1) & 0x55;
+        }
+        int bits = (i < cells.length) ? buffer[p] & 0xFF : 0;
+        for (; i < cells.length; i++) {
+            int code = bits & 3;
+            bits >>>= 2;
+            cells[i] = (byte) code;
+            invalid |= code & (code >>> 1);
+        }
+        return invalid;
+    }
+
+    // === BUFFER ===
+
+    /**
+     * Makes at least n unread bytes available unless the input ends first.
+     *
+     * @return the number of unread bytes.
+     */
+    private int fill(int n) throws IOException {
+        if (limit - position >= n || endOfInput)
+            return limit - position;
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (n > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(n, buffer.length * 2));
+        }
+        while (limit < n) {
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+                break;
+            }
+            limit += read;
+        }
+        return limit;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Iterates over the remaining puzzles; read errors surface as
+     * {@link UncheckedIOException}.
+     */
+    @Override
+    public Iterator<Puzzle> iterator() {
+        return new Iterator<Puzzle>() {
+            private Puzzle next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = read();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Puzzle next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Puzzle puzzle = next;
+                next = null;
+                return puzzle;
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package slant.io;
+
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes puzzles to a stream in one of the {@link PuzzleFormat}s.
+ *
+ * Output goes through an internal buffer; call {@link #flush()} or
+ * {@link #close()} when done. Not thread-safe.
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream out;
+    private final PuzzleFormat format;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int size;
+    private long bitBuffer; // bits not yet written, least significant first
+    private int bitCount;
+
+    public PuzzleWriter(OutputStream out, PuzzleFormat format) throws IOException {
+        this.out = out;
+        this.format = format;
+        if (format == PuzzleFormat.BINARY) {
+            System.arraycopy(PuzzleFormat.MAGIC, 0, buffer, 0, PuzzleFormat.MAGIC.length);
+            buffer[PuzzleFormat.MAGIC.length] = (byte) PuzzleFormat.VERSION;
+            size = PuzzleFormat.MAGIC.length + 1;
+        }
+    }
+
+    public void write(Puzzle puzzle) throws IOException {
+        if (format == PuzzleFormat.TEXT) {
+            String id = GameId.encode(puzzle);
+            reserve(id.length() + 1);
+            for (int i = 0; i < id.length(); i++) {
+                buffer[size++] = (byte) id.charAt(i);
+            }
+            buffer[size++] = '\n';
+        } else {
+            writeBinary(puzzle);
+        }
+        if (size >= BUFFER_SIZE) {
+            drain();
+        }
+    }
+
+    private void writeBinary(Puzzle puzzle) {
+        byte[] clues = puzzle.getClueCodes();
+        boolean withSolution = puzzle.hasSolution();
+        byte[] solution = withSolution ? puzzle.getSolutionCodes() : null;
+        reserve(13 + (int) ((3L * clues.length + 7) >>> 3) + (withSolution ? (solution.length + 3) >>> 2 : 0));
+
+        writeVarint(puzzle.getWidth());
+        writeVarint(puzzle.getHeight());
+        buffer[size++] = (byte) (withSolution ? PuzzleFormat.FLAG_SOLUTION : 0);
+
+        for (byte clue : clues) {
+            putBits(clue == PackedBoard.NO_CLUE ? PuzzleFormat.NO_CLUE_BITS : clue, 3);
+        }
+        padBits();
+        if (withSolution) {
+            for (byte cell : solution) {
+                putBits(cell, 2);
+            }
+            padBits();
+        }
+    }
+
+    private void putBits(int value, int count) {
+        bitBuffer |= (long) value << bitCount;
+        bitCount += count;
+        if (bitCount >= 32) {
+            buffer[size++] = (byte) bitBuffer;
+            buffer[size++] = (byte) (bitBuffer >>> 8);
+            buffer[size++] = (byte) (bitBuffer >>> 16);
+            buffer[size++] = (byte) (bitBuffer >>> 24);
+            bitBuffer >>>= 32;
+            bitCount -= 32;
+        }
+    }
+
+    // Writes the pending bits, padded to a whole byte
+    private void padBits() {
+        while (bitCount > 0) {
+            buffer[size++] = (byte) bitBuffer;
+            bitBuffer >>>= 8;
+            bitCount -= 8;
+        }
+        bitBuffer = 0;
+        bitCount = 0;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+    }
+
+    private void reserve(int bytes) {
+        if (size + bytes > buffer.length) {
+            buffer = java.util.Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+        }
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer, 0, size);
+        size = 0;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+}
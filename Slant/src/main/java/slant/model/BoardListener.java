@@ -0,0 +1,42 @@
+package slant.model;
+
+/**
+ * Receives change events from {@link SlantModel}.
+ *
+ * Every cell write goes through one path in the model, so a listener sees
+ * exactly the cells and nodes that changed and can update its own caches
+ * (or repaint only the dirty region) instead of rescanning the board.
+ */
+public interface BoardListener {
+
+    /**
+     * A single cell changed from oldSlant to newSlant.
+     */
+    void cellChanged(int x, int y, Slant oldSlant, Slant newSlant);
+
+    /**
+     * The number of lines touching node (x, y) changed.
+     */
+    default void nodeChanged(int x, int y, int oldCount, int newCount) {
+    }
+
+    /**
+     * The clue at node (x, y) changed; null stands for no clue.
+     */
+    default void clueChanged(int x, int y, Integer oldClue, Integer newClue) {
+    }
+
+    /**
+     * The move just reported by cellChanged closed a loop. cells lists the
+     * loop's cells (y * width + x) in order around it, the move's cell first.
+     * Only sent while the model's loop reporting is on.
+     */
+    default void loopClosed(int[] cells) {
+    }
+
+    /**
+     * The whole board was replaced (new puzzle or new size).
+     */
+    default void boardReset() {
+    }
+}
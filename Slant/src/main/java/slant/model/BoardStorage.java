@@ -0,0 +1,95 @@
+package slant.model;
+
+/**
+ * Storage backend for a Slant board: cells, solution and clues.
+ *
+ * Cell codes and clue values follow the {@link PackedBoard} conventions
+ * (EMPTY/FORWARD/BACKWARD, NO_CLUE). {@link PackedBoard} keeps everything on
+ * the heap; {@link MappedBoard} keeps the same packed layout in a
+ * memory-mapped file for boards too large for the heap.
+ */
+public interface BoardStorage {
+
+    int getWidth();
+
+    int getHeight();
+
+    // === CELLS ===
+
+    int getCell(int x, int y);
+
+    void setCell(int x, int y, int code);
+
+    boolean isForward(int x, int y);
+
+    boolean isBackward(int x, int y);
+
+    void clearCells();
+
+    // === SOLUTION ===
+
+    int getSolution(int x, int y);
+
+    void setSolution(int x, int y, int code);
+
+    // === CLUES ===
+
+    byte getClue(int x, int y);
+
+    void setClue(int x, int y, byte value);
+
+    // === PACKED ROWS ===
+    // Word access for the bitwise kernels in LineCounter. Rows of cells and
+    // rows of nodes both use getWordsPerRow() words of width + 1 bits; cell
+    // x / node x is bit (x & 63) of word (x >>> 6), and padding bits are 0.
+
+    // Clue bit planes: three bits of the clue value plus a presence bit
+    int CLUE_BIT0 = 0;
+    int CLUE_BIT1 = 1;
+    int CLUE_BIT2 = 2;
+    int CLUE_PRESENT = 3;
+
+    int getWordsPerRow();
+
+    /**
+     * @param code FORWARD or BACKWARD: which cell bit plane to read.
+     * @return one word of that plane in cell row y.
+     */
+    long getCellWord(int code, int y, int word);
+
+    /**
+     * @param plane one of CLUE_BIT0, CLUE_BIT1, CLUE_BIT2, CLUE_PRESENT.
+     * @return one word of that clue plane in node row y.
+     */
+    long getClueWord(int plane, int y, int word);
+
+    // === BULK ACCESS ===
+
+    /**
+     * @return a copy of all cells, row-major (y * width + x).
+     */
+    default byte[] getCellCodes() {
+        int width = getWidth();
+        byte[] codes = new byte[width * getHeight()];
+        for (int y = 0; y < getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                codes[y * width + x] = (byte) getCell(x, y);
+            }
+        }
+        return codes;
+    }
+
+    /**
+     * @return a copy of all clues, row-major (y * (width + 1) + x).
+     */
+    default byte[] getClueCodes() {
+        int nodesPerRow = getWidth() + 1;
+        byte[] codes = new byte[nodesPerRow * (getHeight() + 1)];
+        for (int y = 0; y <= getHeight(); y++) {
+            for (int x = 0; x < nodesPerRow; x++) {
+                codes[y * nodesPerRow + x] = getClue(x, y);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,82 @@
+package slant.model;
+
+/**
+ * A cell the player can fill next, with the reason it is forced.
+ * Produced by {@link HintEngine}.
+ */
+public final class Hint {
+
+    /**
+     * Why the cell must hold the slant.
+     */
+    public enum Rule {
+        CLUE_SATISFIED("clue %d at (%d, %d) already has all its lines"),
+        CLUE_NEEDS_ALL("clue %d at (%d, %d) needs every line still open"),
+        NO_LOOP("the other diagonal would close a loop"),
+        SOLUTION("no simple rule applies, taken from the solution");
+
+        private final String reason;
+
+        Rule(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    private final int x;
+    private final int y;
+    private final Slant slant;
+    private final Rule rule;
+    private final int clueX; // The clue node for the CLUE_ rules, -1 otherwise
+    private final int clueY;
+    private final int clue;
+
+    Hint(int x, int y, Slant slant, Rule rule, int clueX, int clueY, int clue) {
+        this.x = x;
+        this.y = y;
+        this.slant = slant;
+        this.rule = rule;
+        this.clueX = clueX;
+        this.clueY = clueY;
+        this.clue = clue;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public Slant getSlant() {
+        return slant;
+    }
+
+    public Rule getRule() {
+        return rule;
+    }
+
+    /**
+     * @return the node whose clue forces the cell, or -1 for the other rules.
+     */
+    public int getClueX() {
+        return clueX;
+    }
+
+    public int getClueY() {
+        return clueY;
+    }
+
+    /**
+     * @return e.g. "(3, 1) is \ : clue 2 at (3, 2) already has all its lines".
+     */
+    public String describe() {
+        String symbol = (slant == Slant.FORWARD) ? "/" : "\\";
+        return "(" + x + ", " + y + ") is " + symbol + " : " + String.format(rule.reason, clue, clueX, clueY);
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
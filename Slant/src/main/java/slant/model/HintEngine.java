@@ -0,0 +1,184 @@
+package slant.model;
+
+import java.util.BitSet;
+
+/**
+ * Finds the next logically forced cell of the live game, without search.
+ *
+ * Rules, tried in this order:
+ * <ol>
+ * <li>A clue whose line count (the model's DP table) already equals it:
+ * every open cell around it must point away from it.</li>
+ * <li>A clue that needs every open cell around it: they must all point
+ * into it.</li>
+ * <li>A cell where one diagonal would close a loop (the model's Union-Find)
+ * must hold the other one.</li>
+ * </ol>
+ * If none applies, the stored solution is used for the model's best empty
+ * cell.
+ *
+ * The engine listens to the model (moves and clue edits) and keeps two
+ * candidate sets up to date in O(1) per event: the clue nodes where rule 1 or 2 fires, and the empty
+ * cells where both ends of a diagonal already touch a line (the only cells
+ * where rule 3 can fire). A query reads the first clue candidate, or checks
+ * loop candidates until one fires, and its answer is kept until the board
+ * changes, so asking repeatedly is free.
+ */
+public class HintEngine implements BoardListener {
+    private final SlantModel model;
+    private int width;
+    private int height;
+    private final BitSet clueCandidates = new BitSet(); // nodes y * (width + 1) + x
+    private final BitSet loopCandidates = new BitSet(); // cells y * width + x
+    private Hint cached; // null until asked after the last change
+    private boolean cachedValid;
+
+    public HintEngine(SlantModel model) {
+        this.model = model;
+        model.addBoardListener(this);
+        boardReset();
+    }
+
+    // === QUERY ===
+
+    /**
+     * @return the next forced cell and its rule, or null if the grid is full.
+     */
+    public Hint nextHint() {
+        if (!cachedValid) {
+            cached = findHint();
+            cachedValid = true;
+        }
+        return cached;
+    }
+
+    private Hint findHint() {
+        for (int node = clueCandidates.nextSetBit(0); node >= 0; node = clueCandidates.nextSetBit(node + 1)) {
+            Hint hint = clueHint(node % (width + 1), node / (width + 1));
+            if (hint != null)
+                return hint;
+        }
+
+        for (int cell = loopCandidates.nextSetBit(0); cell >= 0; cell = loopCandidates.nextSetBit(cell + 1)) {
+            int x = cell % width;
+            int y = cell / width;
+            boolean forwardLoops = model.wouldCloseLoop(x, y, Slant.FORWARD);
+            boolean backwardLoops = model.wouldCloseLoop(x, y, Slant.BACKWARD);
+            if (forwardLoops != backwardLoops) {
+                Slant slant = forwardLoops ? Slant.BACKWARD : Slant.FORWARD;
+                return new Hint(x, y, slant, Hint.Rule.NO_LOOP, -1, -1, -1);
+            }
+        }
+
+        int cell = model.getBestEmptyCell();
+        if (cell < 0)
+            return null;
+        int x = cell % width;
+        int y = cell / width;
+        return new Hint(x, y, model.getSolutionAt(x, y), Hint.Rule.SOLUTION, -1, -1, -1);
+    }
+
+    // The open cell around clue node (x, y) that a clue rule forces, or null
+    private Hint clueHint(int x, int y) {
+        Integer clue = model.getClue(x, y);
+        if (clue == null)
+            return null;
+        int lines = model.getDPClueCount(x, y);
+        int open = countOpenAround(x, y);
+        if (open == 0)
+            return null;
+
+        Hint.Rule rule;
+        if (lines == clue) {
+            rule = Hint.Rule.CLUE_SATISFIED;
+        } else if (lines + open == clue) {
+            rule = Hint.Rule.CLUE_NEEDS_ALL;
+        } else {
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            int cx = x - 1 + (i & 1);
+            int cy = y - 1 + (i >> 1);
+            if (isOpen(cx, cy)) {
+                // Cells up-left and down-right of the node touch it with \, the others with /
+                Slant touching = (i == 0 || i == 3) ? Slant.BACKWARD : Slant.FORWARD;
+                Slant away = (touching == Slant.FORWARD) ? Slant.BACKWARD : Slant.FORWARD;
+                Slant slant = (rule == Hint.Rule.CLUE_SATISFIED) ? away : touching;
+                return new Hint(cx, cy, slant, rule, x, y, clue);
+            }
+        }
+        return null;
+    }
+
+    private int countOpenAround(int x, int y) {
+        int open = 0;
+        for (int i = 0; i < 4; i++) {
+            if (isOpen(x - 1 + (i & 1), y - 1 + (i >> 1))) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    private boolean isOpen(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height && model.getSlant(x, y) == Slant.EMPTY;
+    }
+
+    // === CANDIDATE UPKEEP ===
+
+    private void updateClueCandidate(int x, int y) {
+        if (x < 0 || x > width || y < 0 || y > height)
+            return;
+        clueCandidates.set(y * (width + 1) + x, clueHint(x, y) != null);
+    }
+
+    // Rule 3 needs both ends of one diagonal to touch a line already
+    private void updateLoopCandidate(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height)
+            return;
+        boolean candidate = model.getSlant(x, y) == Slant.EMPTY
+                && ((model.getDPClueCount(x + 1, y) > 0 && model.getDPClueCount(x, y + 1) > 0)
+                        || (model.getDPClueCount(x, y) > 0 && model.getDPClueCount(x + 1, y + 1) > 0));
+        loopCandidates.set(y * width + x, candidate);
+    }
+
+    @Override
+    public void cellChanged(int x, int y, Slant oldSlant, Slant newSlant) {
+        cachedValid = false;
+        updateLoopCandidate(x, y);
+        for (int i = 0; i < 4; i++) {
+            updateClueCandidate(x + (i & 1), y + (i >> 1));
+        }
+    }
+
+    @Override
+    public void nodeChanged(int x, int y, int oldCount, int newCount) {
+        cachedValid = false;
+        for (int i = 0; i < 4; i++) {
+            updateLoopCandidate(x - 1 + (i & 1), y - 1 + (i >> 1));
+        }
+    }
+
+    // Only the changed clue's own rule can start or stop firing; the loop
+    // rule reads line counts, and the solution fallback is re-asked anyway
+    @Override
+    public void clueChanged(int x, int y, Integer oldClue, Integer newClue) {
+        cachedValid = false;
+        updateClueCandidate(x, y);
+    }
+
+    @Override
+    public void boardReset() {
+        cachedValid = false;
+        width = model.getWidth();
+        height = model.getHeight();
+        clueCandidates.clear();
+        loopCandidates.clear();
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x <= width; x++) {
+                updateClueCandidate(x, y);
+                updateLoopCandidate(x, y);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package slant.model;
+
+/**
+ * Word-parallel (SWAR) line counting on packed board rows.
+ *
+ * The lines touching node (x, y) come from four cell bits:
+ * '\' in cell (x-1, y-1), '/' in cell (x, y-1), '/' in cell (x-1, y) and
+ * '\' in cell (x, y). For a whole row of nodes these are the two bit planes
+ * of the cell row above and the cell row below, with the "x-1" planes
+ * shifted left by one bit. Adding the four planes with a bit-sliced adder
+ * gives the count at 64 nodes at once as three bit planes (1s, 2s, 4s),
+ * which compare against the clue bit planes with a few XOR/AND operations
+ * and a popcount. There are no bounds checks: border cells simply read as
+ * zero words.
+ *
+ * The project targets Java 8, so this is plain long arithmetic rather than
+ * the incubating Vector API; the JIT already keeps the loop in registers and
+ * a full-board pass is bound by memory bandwidth.
+ */
+public final class LineCounter {
+
+    private LineCounter() {
+    }
+
+    /**
+     * Computes the line count of every node in node row y.
+     *
+     * @param counts receives three planes per word: counts[3w] ones,
+     *               counts[3w + 1] twos, counts[3w + 2] fours.
+     */
+    public static void countRow(BoardStorage board, int y, long[] counts) {
+        int words = board.getWordsPerRow();
+        boolean hasAbove = y > 0;
+        boolean hasBelow = y < board.getHeight();
+        long carryAbove = 0;
+        long carryBelow = 0;
+
+        for (int w = 0; w < words; w++) {
+            long backwardAbove = hasAbove ? board.getCellWord(PackedBoard.BACKWARD, y - 1, w) : 0;
+            long forwardAbove = hasAbove ? board.getCellWord(PackedBoard.FORWARD, y - 1, w) : 0;
+            long forwardBelow = hasBelow ? board.getCellWord(PackedBoard.FORWARD, y, w) : 0;
+            long backwardBelow = hasBelow ? board.getCellWord(PackedBoard.BACKWARD, y, w) : 0;
+
+            // Cells x-1 line up with node x after a one-bit shift across words
+            long a = (backwardAbove << 1) | (carryAbove >>> 63);
+            long b = forwardAbove;
+            long c = (forwardBelow << 1) | (carryBelow >>> 63);
+            long d = backwardBelow;
+            carryAbove = backwardAbove;
+            carryBelow = forwardBelow;
+
+            // Bit-sliced a + b + c + d (0..4)
+            long sumAB = a ^ b;
+            long carryAB = a & b;
+            long sumCD = c ^ d;
+            long carryCD = c & d;
+            long carry = sumAB & sumCD;
+
+            counts[3 * w] = sumAB ^ sumCD;
+            counts[3 * w + 1] = carryAB ^ carryCD ^ carry;
+            counts[3 * w + 2] = (carryAB & carryCD) | (carry & (carryAB | carryCD));
+        }
+    }
+
+    /**
+     * @return the number of clue nodes whose line count differs from the clue.
+     */
+    public static int countUnsatisfied(BoardStorage board) {
+        int words = board.getWordsPerRow();
+        long[] counts = new long[3 * words];
+        int unsatisfied = 0;
+        for (int y = 0; y <= board.getHeight(); y++) {
+            countRow(board, y, counts);
+            for (int w = 0; w < words; w++) {
+                long wrong = (counts[3 * w] ^ board.getClueWord(BoardStorage.CLUE_BIT0, y, w))
+                        | (counts[3 * w + 1] ^ board.getClueWord(BoardStorage.CLUE_BIT1, y, w))
+                        | (counts[3 * w + 2] ^ board.getClueWord(BoardStorage.CLUE_BIT2, y, w));
+                unsatisfied += Long.bitCount(wrong & board.getClueWord(BoardStorage.CLUE_PRESENT, y, w));
+            }
+        }
+        return unsatisfied;
+    }
+
+    /**
+     * Writes the line count of every node into counts (y * (width + 1) + x).
+     */
+    public static void fillLineCounts(BoardStorage board, byte[] counts) {
+        int words = board.getWordsPerRow();
+        int nodesPerRow = board.getWidth() + 1;
+        long[] planes = new long[3 * words];
+        for (int y = 0; y <= board.getHeight(); y++) {
+            countRow(board, y, planes);
+            int rowStart = y * nodesPerRow;
+            for (int w = 0; w < words; w++) {
+                long ones = planes[3 * w];
+                long twos = planes[3 * w + 1];
+                long fours = planes[3 * w + 2];
+                int base = w << 6;
+                int end = Math.min(64, nodesPerRow - base);
+                for (int i = 0; i < end; i++) {
+                    counts[rowStart + base + i] = (byte) (((ones >>> i) & 1)
+                            | (((twos >>> i) & 1) << 1)
+                            | (((fours >>> i) & 1) << 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of cells with no slant.
+     */
+    public static int countEmpty(BoardStorage board) {
+        int words = board.getWordsPerRow();
+        int filled = 0;
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int w = 0; w < words; w++) {
+                filled += Long.bitCount(board.getCellWord(PackedBoard.FORWARD, y, w)
+                        | board.getCellWord(PackedBoard.BACKWARD, y, w));
+            }
+        }
+        return board.getWidth() * board.getHeight() - filled;
+    }
+
+    /**
+     * @return the number of lines touching node (x, y).
+     */
+    public static int countLinesAt(BoardStorage board, int x, int y) {
+        // Padding bits past the last cell are zero, so only x-1, y-1 and
+        // the bottom row need guarding
+        int count = 0;
+        if (y > 0) {
+            if (x > 0 && board.isBackward(x - 1, y - 1))
+                count++;
+            if (board.isForward(x, y - 1))
+                count++;
+        }
+        if (y < board.getHeight()) {
+            if (x > 0 && board.isForward(x - 1, y))
+                count++;
+            if (board.isBackward(x, y))
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,277 @@
+package slant.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Board storage in a memory-mapped file, for boards too large for the heap.
+ *
+ * Uses the same packed layout as {@link PackedBoard}: two bit planes per row
+ * for the cells and two for the solution (2 bits per cell, rows padded to
+ * width + 1 bits), four bit planes for the clues, then one byte per clue
+ * node. The operating system pages
+ * the file in on demand, so opening a multi-million-cell board costs almost
+ * nothing and the Java heap stays small. The file can be reopened later
+ * without regenerating the puzzle, with the player's cells intact.
+ *
+ * File layout (little-endian):
+ * <pre>
+ * 0   int  magic "SLNT"
+ * 4   int  format version
+ * 8   int  width
+ * 12  int  height
+ * 16  int  words per row
+ * 20  ...  reserved up to 32
+ * 32  long[wordsPerRow * height] x 4   cells '/', cells '\', solution '/', solution '\'
+ * ..  long[wordsPerRow * (height + 1)] x 4   clue bits 0-2, clue present
+ * ..  byte[(width + 1) * (height + 1)] clues
+ * </pre>
+ * A single mapping is limited to 2 GB, about 1 billion cells.
+ *
+ * Not thread-safe, like {@link PackedBoard}.
+ */
+public class MappedBoard implements BoardStorage, Closeable {
+    private static final int MAGIC = 0x534C4E54; // "SLNT"
+    private static final int VERSION = 2; // 2: clue bit planes
+    private static final int HEADER_BYTES = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    // Byte offsets of the planes and the clues
+    private final int forward;
+    private final int backward;
+    private final int solutionForward;
+    private final int solutionBackward;
+    private final int cluePlanes;
+    private final int clues;
+
+    private MappedBoard(FileChannel channel, MappedByteBuffer buffer, int width, int height) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 64) >>> 6;
+        int planeBytes = wordsPerRow * height * Long.BYTES;
+        this.forward = HEADER_BYTES;
+        this.backward = forward + planeBytes;
+        this.solutionForward = backward + planeBytes;
+        this.solutionBackward = solutionForward + planeBytes;
+        this.cluePlanes = solutionBackward + planeBytes;
+        this.clues = cluePlanes + 4 * wordsPerRow * (height + 1) * Long.BYTES;
+    }
+
+    /**
+     * Creates (or overwrites) a board file with empty cells and no clues.
+     */
+    public static MappedBoard create(Path file, int width, int height) throws IOException {
+        long size = fileSize(width, height);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, width);
+            buffer.putInt(12, height);
+            buffer.putInt(16, (width + 64) >>> 6);
+
+            MappedBoard board = new MappedBoard(channel, buffer, width, height);
+            // A new file reads as zeros (empty cells); clues start blank
+            for (int i = board.clues; i < size; i++) {
+                buffer.put(i, PackedBoard.NO_CLUE);
+            }
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reopens a board file written by {@link #create(Path, int, int)}.
+     */
+    public static MappedBoard open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_BYTES)
+                throw new IOException("Not a Slant board file: " + file);
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("Not a Slant board file: " + file);
+            if (header.getInt(4) != VERSION)
+                throw new IOException("Unsupported board file version " + header.getInt(4) + ": " + file);
+            int width = header.getInt(8);
+            int height = header.getInt(12);
+            long size = fileSize(width, height);
+            if (channel.size() != size)
+                throw new IOException("Board file is truncated: " + file);
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new MappedBoard(channel, buffer, width, height);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static long fileSize(int width, int height) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Board must be at least 1x1");
+        long wordsPerRow = (width + 64) >>> 6;
+        long size = HEADER_BYTES + 4 * wordsPerRow * height * Long.BYTES
+                + 4 * wordsPerRow * (height + 1) * Long.BYTES + (long) (width + 1) * (height + 1);
+        if (size > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Board " + width + "x" + height + " does not fit in one mapping");
+        return size;
+    }
+
+    /**
+     * Writes every change back to the file.
+     */
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes and closes the file. The board must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    // === CELLS ===
+
+    @Override
+    public int getCell(int x, int y) {
+        return read(forward, backward, x, y);
+    }
+
+    @Override
+    public void setCell(int x, int y, int code) {
+        write(forward, backward, x, y, code);
+    }
+
+    @Override
+    public boolean isForward(int x, int y) {
+        return (buffer.getLong(wordOffset(forward, x, y)) & (1L << x)) != 0;
+    }
+
+    @Override
+    public boolean isBackward(int x, int y) {
+        return (buffer.getLong(wordOffset(backward, x, y)) & (1L << x)) != 0;
+    }
+
+    @Override
+    public void clearCells() {
+        for (int i = forward; i < solutionForward; i += Long.BYTES) {
+            buffer.putLong(i, 0L);
+        }
+    }
+
+    // === SOLUTION ===
+
+    @Override
+    public int getSolution(int x, int y) {
+        return read(solutionForward, solutionBackward, x, y);
+    }
+
+    @Override
+    public void setSolution(int x, int y, int code) {
+        write(solutionForward, solutionBackward, x, y, code);
+    }
+
+    // === CLUES ===
+
+    @Override
+    public byte getClue(int x, int y) {
+        return buffer.get(clues + y * (width + 1) + x);
+    }
+
+    @Override
+    public void setClue(int x, int y, byte value) {
+        buffer.put(clues + y * (width + 1) + x, value);
+
+        long bit = 1L << x;
+        for (int plane = 0; plane < 4; plane++) {
+            boolean set = (plane == CLUE_PRESENT) ? value != PackedBoard.NO_CLUE
+                    : value != PackedBoard.NO_CLUE && (value & (1 << plane)) != 0;
+            int offset = clueWordOffset(plane, y, x >>> 6);
+            long word = buffer.getLong(offset) & ~bit;
+            buffer.putLong(offset, set ? word | bit : word);
+        }
+    }
+
+    // === PACKED ROWS ===
+
+    @Override
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    @Override
+    public long getCellWord(int code, int y, int word) {
+        int plane = (code == PackedBoard.FORWARD) ? forward : backward;
+        return buffer.getLong(plane + (y * wordsPerRow + word) * Long.BYTES);
+    }
+
+    @Override
+    public long getClueWord(int plane, int y, int word) {
+        return buffer.getLong(clueWordOffset(plane, y, word));
+    }
+
+    private int clueWordOffset(int plane, int y, int word) {
+        return cluePlanes + ((plane * (height + 1) + y) * wordsPerRow + word) * Long.BYTES;
+    }
+
+    private int wordOffset(int plane, int x, int y) {
+        return plane + (y * wordsPerRow + (x >>> 6)) * Long.BYTES;
+    }
+
+    private int read(int fwd, int bwd, int x, int y) {
+        long bit = 1L << x;
+        if ((buffer.getLong(wordOffset(fwd, x, y)) & bit) != 0)
+            return PackedBoard.FORWARD;
+        if ((buffer.getLong(wordOffset(bwd, x, y)) & bit) != 0)
+            return PackedBoard.BACKWARD;
+        return PackedBoard.EMPTY;
+    }
+
+    private void write(int fwd, int bwd, int x, int y, int code) {
+        int f = wordOffset(fwd, x, y);
+        int b = wordOffset(bwd, x, y);
+        long bit = 1L << x;
+        long fw = buffer.getLong(f) & ~bit;
+        long bw = buffer.getLong(b) & ~bit;
+        if (code == PackedBoard.FORWARD) {
+            fw |= bit;
+        } else if (code == PackedBoard.BACKWARD) {
+            bw |= bit;
+        }
+        buffer.putLong(f, fw);
+        buffer.putLong(b, bw);
+    }
+}
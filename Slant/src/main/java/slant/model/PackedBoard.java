@@ -0,0 +1,213 @@
+package slant.model;
+
+/**
+ * Packed storage for a Slant board.
+ *
+ * Cells are kept as two bit planes per row (one bit for '/', one for '\'),
+ * so every cell costs exactly 2 bits and a row of 64 cells fits in a pair
+ * of longs. The generated solution uses the same layout. Clues take one byte
+ * per node, with {@link #NO_CLUE} marking nodes that show no number, and are
+ * mirrored into four bit planes (value bits and presence) for the bitwise
+ * kernels in {@link LineCounter}.
+ *
+ * Rows are padded to {@code width + 1} bits so that a row of nodes and a row
+ * of cells share the same word stride.
+ *
+ * This is the heap backend of {@link BoardStorage}; {@link MappedBoard} uses
+ * the same layout in a file.
+ */
+public class PackedBoard implements BoardStorage {
+    public static final byte NO_CLUE = -1;
+
+    // Cell codes match Slant.ordinal()
+    public static final int EMPTY = 0;
+    public static final int FORWARD = 1;
+    public static final int BACKWARD = 2;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    private final long[] forward;
+    private final long[] backward;
+    private final long[] solutionForward;
+    private final long[] solutionBackward;
+    private final byte[] clues;
+    private final long[][] cluePlanes; // [CLUE_BIT0..CLUE_PRESENT][y * wordsPerRow + word]
+
+    public PackedBoard(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 64) >>> 6;
+        int cellWords = wordsPerRow * height;
+        this.forward = new long[cellWords];
+        this.backward = new long[cellWords];
+        this.solutionForward = new long[cellWords];
+        this.solutionBackward = new long[cellWords];
+        this.clues = new byte[(width + 1) * (height + 1)];
+        java.util.Arrays.fill(clues, NO_CLUE);
+        this.cluePlanes = new long[4][wordsPerRow * (height + 1)];
+    }
+
+    private PackedBoard(PackedBoard other) {
+        this.width = other.width;
+        this.height = other.height;
+        this.wordsPerRow = other.wordsPerRow;
+        this.forward = other.forward.clone();
+        this.backward = other.backward.clone();
+        this.solutionForward = other.solutionForward.clone();
+        this.solutionBackward = other.solutionBackward.clone();
+        this.clues = other.clues.clone();
+        this.cluePlanes = new long[4][];
+        for (int plane = 0; plane < 4; plane++) {
+            this.cluePlanes[plane] = other.cluePlanes[plane].clone();
+        }
+    }
+
+    /**
+     * @return an independent deep copy of this board.
+     */
+    public PackedBoard copy() {
+        return new PackedBoard(this);
+    }
+
+    /**
+     * @return a heap copy of any board storage (e.g. a {@link MappedBoard}).
+     */
+    public static PackedBoard copyOf(BoardStorage storage) {
+        if (storage instanceof PackedBoard)
+            return ((PackedBoard) storage).copy();
+        int width = storage.getWidth();
+        int height = storage.getHeight();
+        PackedBoard copy = new PackedBoard(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                copy.setCell(x, y, storage.getCell(x, y));
+                copy.setSolution(x, y, storage.getSolution(x, y));
+            }
+        }
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x <= width; x++) {
+                copy.setClue(x, y, storage.getClue(x, y));
+            }
+        }
+        return copy;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    // === CELLS ===
+
+    public int getCell(int x, int y) {
+        return read(forward, backward, x, y);
+    }
+
+    public void setCell(int x, int y, int code) {
+        write(forward, backward, x, y, code);
+    }
+
+    public boolean isForward(int x, int y) {
+        return (forward[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public boolean isBackward(int x, int y) {
+        return (backward[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public void clearCells() {
+        java.util.Arrays.fill(forward, 0L);
+        java.util.Arrays.fill(backward, 0L);
+    }
+
+    // === SOLUTION ===
+
+    public int getSolution(int x, int y) {
+        return read(solutionForward, solutionBackward, x, y);
+    }
+
+    public void setSolution(int x, int y, int code) {
+        write(solutionForward, solutionBackward, x, y, code);
+    }
+
+    /**
+     * Copies the current cells into the solution planes.
+     */
+    public void storeCellsAsSolution() {
+        System.arraycopy(forward, 0, solutionForward, 0, forward.length);
+        System.arraycopy(backward, 0, solutionBackward, 0, backward.length);
+    }
+
+    /**
+     * Copies the solution planes over the current cells.
+     */
+    public void loadSolutionIntoCells() {
+        System.arraycopy(solutionForward, 0, forward, 0, forward.length);
+        System.arraycopy(solutionBackward, 0, backward, 0, backward.length);
+    }
+
+    // === CLUES ===
+
+    public byte getClue(int x, int y) {
+        return clues[y * (width + 1) + x];
+    }
+
+    public void setClue(int x, int y, byte value) {
+        clues[y * (width + 1) + x] = value;
+
+        int word = y * wordsPerRow + (x >>> 6);
+        long bit = 1L << x;
+        for (int plane = 0; plane < 4; plane++) {
+            cluePlanes[plane][word] &= ~bit;
+        }
+        if (value != NO_CLUE) {
+            cluePlanes[CLUE_PRESENT][word] |= bit;
+            for (int plane = CLUE_BIT0; plane <= CLUE_BIT2; plane++) {
+                if ((value & (1 << plane)) != 0) {
+                    cluePlanes[plane][word] |= bit;
+                }
+            }
+        }
+    }
+
+    // === PACKED ROWS ===
+
+    public long getCellWord(int code, int y, int word) {
+        return (code == FORWARD ? forward : backward)[y * wordsPerRow + word];
+    }
+
+    public long getClueWord(int plane, int y, int word) {
+        return cluePlanes[plane][y * wordsPerRow + word];
+    }
+
+    private int read(long[] fwd, long[] bwd, int x, int y) {
+        int word = y * wordsPerRow + (x >>> 6);
+        long bit = 1L << x;
+        if ((fwd[word] & bit) != 0)
+            return FORWARD;
+        if ((bwd[word] & bit) != 0)
+            return BACKWARD;
+        return EMPTY;
+    }
+
+    private void write(long[] fwd, long[] bwd, int x, int y, int code) {
+        int word = y * wordsPerRow + (x >>> 6);
+        long bit = 1L << x;
+        fwd[word] &= ~bit;
+        bwd[word] &= ~bit;
+        if (code == FORWARD) {
+            fwd[word] |= bit;
+        } else if (code == BACKWARD) {
+            bwd[word] |= bit;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package slant.model;
+
+import java.util.OptionalLong;
+
+/**
+ * A generated puzzle: its clues and the solution they were taken from.
+ *
+ * Clues use one byte per node (y * (width + 1) + x) with
+ * {@link PackedBoard#NO_CLUE} for blanks; the solution uses one cell code per
+ * cell (y * width + x). Both arrays are copied in and out, so a Puzzle can be
+ * shared between threads. A puzzle read from clues alone (e.g. a game ID)
+ * has an empty solution.
+ *
+ * A generated puzzle also remembers the seed it came from; regenerating from
+ * that seed (same size and difficulty) gives the same puzzle.
+ */
+public class Puzzle {
+    private final int width;
+    private final int height;
+    private final byte[] clues;
+    private final byte[] solution;
+    private final OptionalLong seed;
+
+    public Puzzle(int width, int height, byte[] clues, byte[] solution) {
+        this(width, height, clues, solution, OptionalLong.empty());
+    }
+
+    public Puzzle(int width, int height, byte[] clues, byte[] solution, long seed) {
+        this(width, height, clues, solution, OptionalLong.of(seed));
+    }
+
+    private Puzzle(int width, int height, byte[] clues, byte[] solution, OptionalLong seed) {
+        this.width = width;
+        this.height = height;
+        this.clues = clues.clone();
+        this.solution = solution.clone();
+        this.seed = seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the clue at node (x, y), or NO_CLUE.
+     */
+    public byte getClue(int x, int y) {
+        return clues[y * (width + 1) + x];
+    }
+
+    /**
+     * @return the solution cell code at (x, y).
+     */
+    public int getSolution(int x, int y) {
+        return solution[y * width + x];
+    }
+
+    /**
+     * @return the generator seed, or empty if the puzzle was not generated
+     *         from a seed (e.g. imported).
+     */
+    public OptionalLong getSeed() {
+        return seed;
+    }
+
+    public byte[] getClueCodes() {
+        return clues.clone();
+    }
+
+    public byte[] getSolutionCodes() {
+        return solution.clone();
+    }
+
+    /**
+     * @return true if the puzzle carries its solution (no EMPTY cell).
+     */
+    public boolean hasSolution() {
+        for (byte cell : solution) {
+            if (cell == PackedBoard.EMPTY)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of nodes that show a clue.
+     */
+    public int getClueCount() {
+        int count = 0;
+        for (byte clue : clues) {
+            if (clue != PackedBoard.NO_CLUE)
+                count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,346 @@
+package slant.solver;
+
+import slant.io.GameId;
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+import slant.model.Slant;
+import slant.model.SlantModel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless batch solving of puzzles on a pool of worker threads.
+ *
+ * Each worker loads a game ID into its own {@link SlantModel} and solves it
+ * with a {@link SolverBackend}, the same solvers the controller's
+ * BACKTRACKING strategy uses, then plays the solution into the model to
+ * verify it. Nothing here touches AWT or Swing, so it runs with
+ * -Djava.awt.headless=true. As in {@link slant.generator.BatchGenerator},
+ * input is read lazily, only a few puzzles per worker are in flight, and
+ * results reach the sink on the calling thread in completion order.
+ *
+ * Command line (also {@code java -cp out slant.Main solve ...}):
+ * <pre>
+ * java -Djava.awt.headless=true -cp out slant.solver.BatchSolver
+ *      [--in puzzles.txt] [--out solutions.txt] [--threads N]
+ *      [--backend BACKTRACKING|PARALLEL|CDCL]
+ * </pre>
+ * Input is one game ID per line (blank lines and lines starting with '#'
+ * are skipped). Each output line is the game ID, a space, and either the
+ * solution as one '/' or '\' per cell row by row, "unsolvable", or
+ * "invalid" for an ID that does not parse. The latency percentiles and the
+ * throughput are printed to standard error. The backend defaults to CDCL,
+ * which has the flattest latency tail; PARALLEL only pays off with fewer
+ * workers than cores.
+ */
+public class BatchSolver {
+    // Puzzles queued per worker, enough to keep every worker busy
+    private static final int IN_FLIGHT_PER_THREAD = 4;
+
+    /**
+     * Outcome of one puzzle.
+     */
+    public static class Solved {
+        private final String id;
+        private final byte[] solution;
+        private final boolean valid;
+        private final boolean verified;
+        private final long latencyNanos;
+
+        Solved(String id, byte[] solution, boolean valid, boolean verified, long latencyNanos) {
+            this.id = id;
+            this.solution = solution;
+            this.valid = valid;
+            this.verified = verified;
+            this.latencyNanos = latencyNanos;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * @return the cells of the solution (y * width + x), or null if the
+         *         puzzle has none or the ID was invalid.
+         */
+        public byte[] getSolution() {
+            return solution;
+        }
+
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * @return true if the solution, played into the model, solves it.
+         */
+        public boolean isVerified() {
+            return verified;
+        }
+
+        /**
+         * @return time to load and solve the puzzle on its worker.
+         */
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+    }
+
+    /**
+     * Receives each solved puzzle as soon as it is finished.
+     */
+    public interface SolutionSink {
+        void accept(Solved solved) throws IOException;
+    }
+
+    /**
+     * Outcome of one batch.
+     */
+    public static class Result {
+        private final int count;
+        private final int unsolved;
+        private final long elapsedNanos;
+        private final long[] latencies; // sorted
+
+        Result(int count, int unsolved, long elapsedNanos, long[] latencies) {
+            this.count = count;
+            this.unsolved = unsolved;
+            this.elapsedNanos = elapsedNanos;
+            this.latencies = latencies;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return puzzles that were invalid, had no solution or failed verification.
+         */
+        public int getUnsolved() {
+            return unsolved;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getPuzzlesPerSecond() {
+            return elapsedNanos == 0 ? 0 : count * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * @param percentile 0 to 100, e.g. 99 for the 99th percentile.
+         * @return the per-puzzle latency at that percentile (nearest rank), 0 if empty.
+         */
+        public long getLatencyPercentileNanos(double percentile) {
+            if (latencies.length == 0)
+                return 0;
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length - 1, rank - 1))];
+        }
+    }
+
+    private final SolverBackend backend;
+    private final int threads;
+
+    /**
+     * @param threads number of worker threads, e.g. availableProcessors().
+     */
+    public BatchSolver(SolverBackend backend, int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException("Need at least one thread");
+        this.backend = backend;
+        this.threads = threads;
+    }
+
+    /**
+     * Solves every game ID from the iterator and passes each outcome to the
+     * sink as it completes. The iterator is only read on the calling thread.
+     */
+    public Result solve(Iterator<String> ids, SolutionSink sink) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "puzzle-solver");
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<Solved> completed = new ExecutorCompletionService<>(pool);
+        long[] latencies = new long[64];
+        int count = 0;
+        int unsolved = 0;
+        try {
+            int inFlight = 0;
+            int limit = threads * IN_FLIGHT_PER_THREAD;
+            while (inFlight < limit && ids.hasNext()) {
+                submit(completed, ids.next());
+                inFlight++;
+            }
+
+            while (inFlight > 0) {
+                Solved solved = take(completed);
+                inFlight--;
+                if (ids.hasNext()) {
+                    submit(completed, ids.next());
+                    inFlight++;
+                }
+
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = solved.getLatencyNanos();
+                if (!solved.isVerified()) {
+                    unsolved++;
+                }
+                sink.accept(solved);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+        latencies = Arrays.copyOf(latencies, count);
+        Arrays.sort(latencies);
+        return new Result(count, unsolved, elapsed, latencies);
+    }
+
+    private void submit(CompletionService<Solved> completed, String id) {
+        completed.submit(() -> solveOne(id));
+    }
+
+    private Solved solveOne(String id) {
+        long start = System.nanoTime();
+        Puzzle puzzle;
+        try {
+            puzzle = GameId.decode(id);
+        } catch (IllegalArgumentException e) {
+            return new Solved(id, null, false, false, System.nanoTime() - start);
+        }
+        SlantModel model = new SlantModel(puzzle);
+        byte[] solution = backend.solve(model);
+        long latency = System.nanoTime() - start;
+        if (solution == null)
+            return new Solved(id, null, true, false, latency);
+
+        // Play the solution so the model's own clue and loop checks confirm it
+        Slant[] slants = Slant.values();
+        int width = model.getWidth();
+        for (int y = 0; y < model.getHeight(); y++) {
+            for (int x = 0; x < width; x++) {
+                model.setSlant(x, y, slants[solution[y * width + x]]);
+            }
+        }
+        return new Solved(id, solution, true, model.isSolved(), latency);
+    }
+
+    private static Solved take(CompletionService<Solved> completed) throws InterruptedException {
+        try {
+            return completed.take().get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Puzzle solving failed", e.getCause());
+        }
+    }
+
+    /**
+     * @return the cells as one '/' or '\' per cell, row by row ('.' for EMPTY).
+     */
+    public static String formatSolution(byte[] cells) {
+        char[] chars = new char[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            chars[i] = cells[i] == PackedBoard.FORWARD ? '/' : cells[i] == PackedBoard.BACKWARD ? '\\' : '.';
+        }
+        return new String(chars);
+    }
+
+    // === COMMAND LINE ===
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String in = null;
+        String out = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        SolverBackend backend = SolverBackend.CDCL;
+
+        for (int i = 0; i < args.length; i++) {
+            String value = (i + 1 < args.length) ? args[i + 1] : null;
+            switch (args[i]) {
+                case "--in":
+                    in = require(args[i], value);
+                    break;
+                case "--out":
+                    out = require(args[i], value);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(require(args[i], value));
+                    break;
+                case "--backend":
+                    backend = SolverBackend.valueOf(require(args[i], value).toUpperCase());
+                    break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Usage: BatchSolver [--in FILE] [--out FILE] [--threads N]"
+                            + " [--backend BACKTRACKING|PARALLEL|CDCL]");
+                    System.exit(2);
+            }
+            i++;
+        }
+
+        BatchSolver solver = new BatchSolver(backend, threads);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                (in == null) ? System.in : new FileInputStream(in), StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                (out == null) ? System.out : new FileOutputStream(out), StandardCharsets.UTF_8));
+        Iterator<String> ids = reader.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .iterator();
+        Result result;
+        try {
+            result = solver.solve(ids, solved -> {
+                writer.write(solved.getId());
+                writer.write(' ');
+                if (!solved.isValid()) {
+                    writer.write("invalid");
+                } else if (solved.getSolution() == null) {
+                    writer.write("unsolvable");
+                } else {
+                    writer.write(formatSolution(solved.getSolution()));
+                }
+                writer.write('\n');
+            });
+        } finally {
+            writer.flush();
+            if (out != null) {
+                writer.close();
+            }
+            if (in != null) {
+                reader.close();
+            }
+        }
+
+        System.err.printf("Solved %d puzzles (%d unsolved) with %s on %d threads in %.2f s (%.1f puzzles/s)%n",
+                result.getCount(), result.getUnsolved(), backend, threads,
+                result.getElapsedNanos() / 1e9, result.getPuzzlesPerSecond());
+        System.err.printf("Latency p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                result.getLatencyPercentileNanos(50) / 1e6, result.getLatencyPercentileNanos(90) / 1e6,
+                result.getLatencyPercentileNanos(99) / 1e6, result.getLatencyPercentileNanos(100) / 1e6);
+    }
+
+    private static String require(String option, String value) {
+        if (value == null)
+            throw new IllegalArgumentException(option + " needs a value");
+        return value;
+    }
+}
@@ -0,0 +1,707 @@
+package slant.solver;
+
+import slant.algorithm.UnionFind;
+import slant.model.BoardStorage;
+import slant.model.PackedBoard;
+import slant.model.SlantModel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Conflict-driven clause learning (CDCL) solver for Slant, in plain Java.
+ *
+ * Encoding: one boolean variable per cell; literal 2c means cell c holds '/'
+ * (FORWARD) and literal 2c + 1 means '\' (BACKWARD). Every clue becomes
+ * cardinality clauses over the literals "this cell touches the node":
+ * at most k of them (a clause for every k + 1 of them) and at least k (a
+ * clause for every n - k + 1 of them, n being the cells around the node).
+ *
+ * Acyclicity is not encoded up front. Like {@link SlantModel}, the solver
+ * keeps a Union-Find of the nodes joined by assigned cells; an assignment
+ * whose endpoints are already connected closes a loop. The cells on that
+ * loop then yield a clause ("not all of these") that serves as the conflict
+ * and is kept, so the same loop is never tried twice.
+ *
+ * The rest is standard CDCL: two watched literals per clause, first-UIP
+ * conflict analysis, non-chronological backjumping, VSIDS branching with
+ * phase saving, and Luby restarts. The Union-Find rolls back with the
+ * trail, so backjumping undoes loop detection exactly.
+ */
+public class CdclSolver {
+    private static final int RESTART_BASE = 64; // conflicts per Luby unit
+    private static final double VAR_DECAY = 0.95;
+
+    private final int width;
+    private final int height;
+    private final int vars;
+
+    // Assignment per variable, as a cell code (EMPTY = unassigned)
+    private final byte[] value;
+    private final int[] level;
+    private final int[] reason; // clause index, or -1 for decisions and givens
+    private final byte[] savedPhase;
+
+    // Trail of assigned literals with the Union-Find checkpoint before each
+    private final int[] trail;
+    private final int[] trailCheckpoint;
+    private int trailSize;
+    private int queueHead;
+    private int[] levelStart = new int[16]; // trail position where each level begins
+    private int decisionLevel;
+
+    private final UnionFind nodeSets;
+
+    // Clause database and watch lists (per literal)
+    private int[][] clauses = new int[64][];
+    private int clauseCount;
+    private final int[][] watches;
+    private final int[] watchCount;
+    private int pendingLoopClause = -1;
+
+    // VSIDS
+    private final double[] activity;
+    private double activityIncrement = 1;
+    private final VarHeap heap;
+
+    // Conflict analysis scratch
+    private final boolean[] seen;
+    private int[] learnt;
+    private int learntSize;
+
+    // Loop path search scratch
+    private final int[] pathVia;
+    private final int[] pathStamp;
+    private final int[] pathQueue;
+    private int stamp;
+
+    private boolean unsatisfiable;
+
+    // Set by another thread to abandon the search (null when unused)
+    private AtomicBoolean cancelled;
+
+    CdclSolver(int width, int height, byte[] clues) {
+        this.width = width;
+        this.height = height;
+        this.vars = width * height;
+        this.value = new byte[vars];
+        this.level = new int[vars];
+        this.reason = new int[vars];
+        this.savedPhase = new byte[vars];
+        java.util.Arrays.fill(savedPhase, (byte) PackedBoard.FORWARD);
+        this.trail = new int[vars];
+        this.trailCheckpoint = new int[vars];
+        int nodes = (width + 1) * (height + 1);
+        this.nodeSets = new UnionFind(nodes);
+        this.watches = new int[2 * vars][];
+        this.watchCount = new int[2 * vars];
+        this.activity = new double[vars];
+        this.heap = new VarHeap();
+        this.seen = new boolean[vars];
+        this.learnt = new int[16];
+        this.pathVia = new int[nodes];
+        this.pathStamp = new int[nodes];
+        this.pathQueue = new int[nodes];
+
+        for (int y = 0; y <= height && !unsatisfiable; y++) {
+            for (int x = 0; x <= width && !unsatisfiable; x++) {
+                byte clue = clues[y * (width + 1) + x];
+                if (clue != PackedBoard.NO_CLUE) {
+                    addClueClauses(x, y, clue);
+                }
+            }
+        }
+        for (int v = 0; v < vars; v++) {
+            heap.insert(v);
+        }
+    }
+
+    // === PUBLIC API ===
+
+    /**
+     * Solves the puzzle from the given partial board.
+     *
+     * @param clues one value per node (y * (width + 1) + x), NO_CLUE for blanks.
+     * @param cells cells already placed (y * width + x), or null for none.
+     * @return a full solution in the same layout as cells, or null if none exists.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells) {
+        return solve(width, height, clues, cells, null);
+    }
+
+    /**
+     * Like {@link #solve(int, int, byte[], byte[])}, but gives up and
+     * returns null once cancelled is set; it is checked at every decision.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+        CdclSolver solver = new CdclSolver(width, height, clues);
+        solver.cancelled = cancelled;
+        return solver.run(cells) ? solver.value.clone() : null;
+    }
+
+    /**
+     * Solves the current position of a model without modifying it.
+     */
+    public static byte[] solve(SlantModel model) {
+        return solve(model.getWidth(), model.getHeight(), model.getClueCodes(), model.getCellCodes());
+    }
+
+    /**
+     * Solves the cells of a board storage without modifying it.
+     */
+    public static byte[] solve(BoardStorage storage) {
+        return solve(storage.getWidth(), storage.getHeight(), storage.getClueCodes(), storage.getCellCodes());
+    }
+
+    // === ENCODING ===
+
+    private static int literal(int cell, int code) {
+        return 2 * cell + (code == PackedBoard.BACKWARD ? 1 : 0);
+    }
+
+    private static int codeOf(int lit) {
+        return (lit & 1) == 0 ? PackedBoard.FORWARD : PackedBoard.BACKWARD;
+    }
+
+    /**
+     * @return 1 if the literal is true, -1 if false, 0 if unassigned.
+     */
+    private int litValue(int lit) {
+        int v = value[lit >> 1];
+        if (v == PackedBoard.EMPTY)
+            return 0;
+        return v == codeOf(lit) ? 1 : -1;
+    }
+
+    /**
+     * Cardinality clauses for "exactly clue of the cells around (x, y)
+     * touch it". At most 4 cells, so every subset is enumerated directly.
+     */
+    private void addClueClauses(int x, int y, int clue) {
+        int[] touching = new int[4];
+        int n = 0;
+        // Top-left cell touches with '\', top-right with '/',
+        // bottom-left with '/', bottom-right with '\'
+        if (x > 0 && y > 0)
+            touching[n++] = literal((y - 1) * width + x - 1, PackedBoard.BACKWARD);
+        if (x < width && y > 0)
+            touching[n++] = literal((y - 1) * width + x, PackedBoard.FORWARD);
+        if (x > 0 && y < height)
+            touching[n++] = literal(y * width + x - 1, PackedBoard.FORWARD);
+        if (x < width && y < height)
+            touching[n++] = literal(y * width + x, PackedBoard.BACKWARD);
+
+        if (clue > n) {
+            unsatisfiable = true;
+            return;
+        }
+        for (int subset = 1; subset < (1 << n); subset++) {
+            int size = Integer.bitCount(subset);
+            if (size == clue + 1) {
+                // At most clue: not all of these touch
+                addInitialClause(touching, n, subset, true);
+            }
+            if (size == n - clue + 1) {
+                // At least clue: one of these touches
+                addInitialClause(touching, n, subset, false);
+            }
+        }
+    }
+
+    private void addInitialClause(int[] touching, int n, int subset, boolean negate) {
+        int[] clause = new int[Integer.bitCount(subset)];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if ((subset & (1 << i)) != 0) {
+                clause[k++] = negate ? touching[i] ^ 1 : touching[i];
+            }
+        }
+        if (clause.length == 1) {
+            // Unit clauses are applied at level 0 in run()
+            storeClause(clause);
+            return;
+        }
+        attachWatches(storeClause(clause));
+    }
+
+    private int storeClause(int[] clause) {
+        if (clauseCount == clauses.length) {
+            clauses = java.util.Arrays.copyOf(clauses, clauseCount * 2);
+        }
+        clauses[clauseCount] = clause;
+        return clauseCount++;
+    }
+
+    private void attachWatches(int index) {
+        int[] clause = clauses[index];
+        watch(clause[0], index);
+        watch(clause[1], index);
+    }
+
+    private void watch(int lit, int index) {
+        int[] list = watches[lit];
+        if (list == null) {
+            list = watches[lit] = new int[4];
+        } else if (watchCount[lit] == list.length) {
+            list = watches[lit] = java.util.Arrays.copyOf(list, list.length * 2);
+        }
+        list[watchCount[lit]++] = index;
+    }
+
+    // === SEARCH ===
+
+    /**
+     * @param cells givens (y * width + x), or null.
+     * @return true if a solution was found; it is left in value.
+     */
+    boolean run(byte[] cells) {
+        if (unsatisfiable)
+            return false;
+        for (int c = 0; c < clauseCount; c++) {
+            int[] clause = clauses[c];
+            if (clause.length == 1 && !assignAtRoot(clause[0], c))
+                return false;
+        }
+        if (cells != null) {
+            for (int cell = 0; cell < vars; cell++) {
+                if (cells[cell] != PackedBoard.EMPTY && !assignAtRoot(literal(cell, cells[cell]), -1))
+                    return false;
+            }
+        }
+
+        int conflicts = 0;
+        int restarts = 0;
+        int restartLimit = RESTART_BASE * luby(0);
+        int conflict = -1;
+        while (true) {
+            if (conflict < 0) {
+                conflict = propagate();
+            }
+            if (conflict >= 0) {
+                conflicts++;
+                if (pendingLoopClause >= 0) {
+                    // Loop clauses are kept so the same loop is refuted by propagation next time
+                    watchHighestLevels(pendingLoopClause);
+                    pendingLoopClause = -1;
+                }
+                if (decisionLevel == 0)
+                    return false;
+                int backjumpLevel = analyze(conflict);
+                backtrack(backjumpLevel);
+                int[] clause = java.util.Arrays.copyOf(learnt, learntSize);
+                int index = storeClause(clause);
+                if (clause.length > 1) {
+                    attachWatches(index);
+                }
+                conflict = assign(clause[0], index);
+                activityIncrement /= VAR_DECAY;
+                continue;
+            }
+
+            if (conflicts >= restartLimit) {
+                restarts++;
+                restartLimit = conflicts + RESTART_BASE * luby(restarts);
+                backtrack(0);
+            }
+
+            if (cancelled != null && cancelled.get())
+                return false;
+            int v = pickBranchVariable();
+            if (v < 0)
+                return true; // Every cell assigned without conflict
+            newDecisionLevel();
+            conflict = assign(literal(v, savedPhase[v]), -1);
+        }
+    }
+
+    private boolean assignAtRoot(int lit, int reasonClause) {
+        int current = litValue(lit);
+        if (current != 0)
+            return current > 0;
+        if (assign(lit, reasonClause) >= 0)
+            return false;
+        return propagate() < 0;
+    }
+
+    /**
+     * Makes lit true and joins the cell's endpoints.
+     *
+     * @return -1, or the index of a loop clause if the cell closes a loop.
+     */
+    private int assign(int lit, int reasonClause) {
+        int v = lit >> 1;
+        int x = v % width;
+        int y = v / width;
+        int code = codeOf(lit);
+        int a = edgeStart(x, y, code);
+        int b = edgeEnd(x, y, code);
+
+        int loopClause = -1;
+        int checkpoint = nodeSets.checkpoint();
+        if (!nodeSets.union(a, b)) {
+            // Endpoints already connected: collect the loop before v joins the board
+            loopClause = storeClause(loopClause(a, b, lit));
+            pendingLoopClause = loopClause;
+        }
+
+        value[v] = (byte) code;
+        level[v] = decisionLevel;
+        reason[v] = reasonClause;
+        trailCheckpoint[trailSize] = checkpoint;
+        trail[trailSize++] = lit;
+        return loopClause;
+    }
+
+    /**
+     * Unit propagation over the watched literals.
+     *
+     * @return -1, or the index of a conflicting clause.
+     */
+    private int propagate() {
+        while (queueHead < trailSize) {
+            int falseLit = trail[queueHead++] ^ 1;
+            int[] list = watches[falseLit];
+            int count = watchCount[falseLit];
+            int i = 0;
+            int j = 0;
+            while (i < count) {
+                int index = list[i++];
+                int[] clause = clauses[index];
+                if (clause[0] == falseLit) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLit;
+                }
+                if (litValue(clause[0]) > 0) {
+                    list[j++] = index;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (litValue(clause[k]) >= 0) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLit;
+                        watch(clause[1], index);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved)
+                    continue;
+
+                list[j++] = index;
+                int conflict = (litValue(clause[0]) < 0) ? index : assign(clause[0], index);
+                if (conflict >= 0) {
+                    while (i < count) {
+                        list[j++] = list[i++];
+                    }
+                    watchCount[falseLit] = j;
+                    return conflict;
+                }
+            }
+            watchCount[falseLit] = j;
+        }
+        return -1;
+    }
+
+    /**
+     * First-UIP conflict analysis. Leaves the learnt clause in learnt, with
+     * the asserting literal first and a literal of the backjump level second.
+     *
+     * @return the level to backjump to.
+     */
+    private int analyze(int conflict) {
+        learntSize = 1; // Slot 0 is for the asserting literal
+        int pending = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        int[] clause = clauses[conflict];
+
+        while (true) {
+            for (int q : clause) {
+                if (q == lit)
+                    continue; // The literal this clause implied
+                int v = q >> 1;
+                if (!seen[v] && level[v] > 0) {
+                    seen[v] = true;
+                    bumpActivity(v);
+                    if (level[v] == decisionLevel) {
+                        pending++;
+                    } else {
+                        addLearnt(q);
+                    }
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            lit = trail[index--];
+            seen[lit >> 1] = false;
+            if (--pending == 0)
+                break;
+            clause = clauses[reason[lit >> 1]];
+        }
+        learnt[0] = lit ^ 1;
+
+        int backjumpLevel = 0;
+        for (int i = 1; i < learntSize; i++) {
+            int v = learnt[i] >> 1;
+            seen[v] = false;
+            if (level[v] > backjumpLevel) {
+                backjumpLevel = level[v];
+                int tmp = learnt[1];
+                learnt[1] = learnt[i];
+                learnt[i] = tmp;
+            }
+        }
+        return backjumpLevel;
+    }
+
+    private void addLearnt(int lit) {
+        if (learntSize == learnt.length) {
+            learnt = java.util.Arrays.copyOf(learnt, learntSize * 2);
+        }
+        learnt[learntSize++] = lit;
+    }
+
+    /**
+     * Watches the two literals of a loop clause assigned last, so that the
+     * watch invariant holds once the solver backjumps below them.
+     */
+    private void watchHighestLevels(int index) {
+        int[] clause = clauses[index];
+        for (int w = 0; w < 2 && w < clause.length; w++) {
+            int best = w;
+            for (int i = w + 1; i < clause.length; i++) {
+                if (level[clause[i] >> 1] > level[clause[best] >> 1]) {
+                    best = i;
+                }
+            }
+            int tmp = clause[w];
+            clause[w] = clause[best];
+            clause[best] = tmp;
+        }
+        if (clause.length > 1) {
+            attachWatches(index);
+        }
+    }
+
+    private void newDecisionLevel() {
+        if (decisionLevel + 1 == levelStart.length) {
+            levelStart = java.util.Arrays.copyOf(levelStart, levelStart.length * 2);
+        }
+        levelStart[++decisionLevel] = trailSize;
+    }
+
+    /**
+     * Undoes every assignment above the given level, newest first.
+     */
+    private void backtrack(int target) {
+        if (decisionLevel <= target)
+            return;
+        int stop = levelStart[target + 1];
+        for (int i = trailSize - 1; i >= stop; i--) {
+            int v = trail[i] >> 1;
+            savedPhase[v] = value[v];
+            value[v] = PackedBoard.EMPTY;
+            reason[v] = -1;
+            if (!heap.contains(v)) {
+                heap.insert(v);
+            }
+        }
+        nodeSets.rollback(trailCheckpoint[stop]);
+        trailSize = stop;
+        queueHead = stop;
+        decisionLevel = target;
+    }
+
+    private int pickBranchVariable() {
+        while (!heap.isEmpty()) {
+            int v = heap.removeMax();
+            if (value[v] == PackedBoard.EMPTY)
+                return v;
+        }
+        return -1;
+    }
+
+    private void bumpActivity(int v) {
+        activity[v] += activityIncrement;
+        if (activity[v] > 1e100) {
+            // Rescale everything to avoid overflow; the order is unchanged
+            for (int i = 0; i < vars; i++) {
+                activity[i] *= 1e-100;
+            }
+            activityIncrement *= 1e-100;
+        }
+        if (heap.contains(v)) {
+            heap.increased(v);
+        }
+    }
+
+    // Luby sequence 1 1 2 1 1 2 4 1 1 2 ... (0-based)
+    private static int luby(int i) {
+        int size = 1;
+        int exponent = 0;
+        while (size < i + 1) {
+            size = 2 * size + 1;
+            exponent++;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            exponent--;
+            i = i % size;
+        }
+        return 1 << exponent;
+    }
+
+    // === LOOPS ===
+
+    // Node indices: y * (width + 1) + x
+    // FORWARD (/) connects (x+1, y) to (x, y+1); BACKWARD (\) connects (x, y) to (x+1, y+1)
+    private int edgeStart(int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? y * (width + 1) + (x + 1) : y * (width + 1) + x;
+    }
+
+    private int edgeEnd(int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? (y + 1) * (width + 1) + x : (y + 1) * (width + 1) + (x + 1);
+    }
+
+    /**
+     * Builds the clause forbidding the loop that lit would close: the cells
+     * on the path from a to b through assigned cells, plus lit's cell, cannot
+     * all keep these diagonals. Every literal of the clause is false once lit
+     * is assigned. Breadth-first search over the component, so the cost is
+     * bounded by its size.
+     */
+    private int[] loopClause(int from, int to, int lit) {
+        stamp++;
+        int head = 0;
+        int tail = 0;
+        pathQueue[tail++] = from;
+        pathStamp[from] = stamp;
+        pathVia[from] = -1;
+
+        int nodesPerRow = width + 1;
+        while (head < tail) {
+            int node = pathQueue[head++];
+            if (node == to)
+                break;
+            int nx = node % nodesPerRow;
+            int ny = node / nodesPerRow;
+            // The four cells around the node and the neighbour each one leads to
+            tail = visit(nx - 1, ny - 1, PackedBoard.BACKWARD, node - nodesPerRow - 1, node, tail);
+            tail = visit(nx, ny - 1, PackedBoard.FORWARD, node - nodesPerRow + 1, node, tail);
+            tail = visit(nx - 1, ny, PackedBoard.FORWARD, node + nodesPerRow - 1, node, tail);
+            tail = visit(nx, ny, PackedBoard.BACKWARD, node + nodesPerRow + 1, node, tail);
+        }
+
+        int length = 1;
+        for (int node = to; pathVia[node] >= 0; node = otherEnd(pathVia[node], node)) {
+            length++;
+        }
+        int[] clause = new int[length];
+        clause[0] = lit ^ 1;
+        int k = 1;
+        for (int node = to; pathVia[node] >= 0; node = otherEnd(pathVia[node], node)) {
+            int cell = pathVia[node];
+            clause[k++] = literal(cell, value[cell]) ^ 1;
+        }
+        return clause;
+    }
+
+    private int visit(int cx, int cy, int code, int neighbour, int node, int tail) {
+        if (cx < 0 || cy < 0 || cx >= width || cy >= height)
+            return tail;
+        int cell = cy * width + cx;
+        if (value[cell] != code || pathStamp[neighbour] == stamp)
+            return tail;
+        pathStamp[neighbour] = stamp;
+        pathVia[neighbour] = cell;
+        pathQueue[tail++] = neighbour;
+        return tail;
+    }
+
+    private int otherEnd(int cell, int node) {
+        int x = cell % width;
+        int y = cell / width;
+        int code = value[cell];
+        int a = edgeStart(x, y, code);
+        return (a == node) ? edgeEnd(x, y, code) : a;
+    }
+
+    // === VSIDS ORDER ===
+
+    /**
+     * Binary max-heap of variables keyed by activity.
+     */
+    private final class VarHeap {
+        private final int[] heap = new int[vars];
+        private final int[] position = new int[vars];
+        private int size;
+
+        VarHeap() {
+            java.util.Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int v) {
+            return position[v] >= 0;
+        }
+
+        void insert(int v) {
+            heap[size] = v;
+            position[v] = size;
+            siftUp(size++);
+        }
+
+        void increased(int v) {
+            siftUp(position[v]);
+        }
+
+        int removeMax() {
+            int top = heap[0];
+            position[top] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                position[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int v = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activity[heap[parent]] >= activity[v])
+                    break;
+                heap[i] = heap[parent];
+                position[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+
+        private void siftDown(int i) {
+            int v = heap[i];
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size)
+                    break;
+                if (child + 1 < size && activity[heap[child + 1]] > activity[heap[child]]) {
+                    child++;
+                }
+                if (activity[heap[child]] <= activity[v])
+                    break;
+                heap[i] = heap[child];
+                position[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = v;
+            position[v] = i;
+        }
+    }
+}
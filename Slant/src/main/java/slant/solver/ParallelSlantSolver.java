@@ -0,0 +1,147 @@
+package slant.solver;
+
+import slant.model.PackedBoard;
+import slant.model.SlantModel;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Work-stealing version of {@link SlantSolver} built on {@link ForkJoinPool}.
+ *
+ * Every task simplifies its own {@link SolverBoard} with the same rules and
+ * probing as the sequential solver. At a choice point it forks both
+ * diagonals onto copies of the board, so idle workers steal whole subtrees.
+ * Splitting stops once the split depth is reached or the worker already has
+ * queued tasks nobody has stolen; from there the subtree is searched by a
+ * sequential {@link SlantSolver}.
+ *
+ * The first solution found wins: it is published once and every other task,
+ * including sequential searches in progress, stops at its next node. A
+ * caller's cancellation flag stops them the same way.
+ *
+ * The game board is never touched, so a solve can run while the UI reads
+ * the model.
+ */
+public class ParallelSlantSolver {
+    // Extra split levels beyond log2(parallelism), so that subtrees that die
+    // early still leave enough work to go round
+    private static final int EXTRA_SPLIT_DEPTH = 4;
+
+    // Stop splitting while this many forked tasks are still waiting to be stolen
+    private static final int SURPLUS_LIMIT = 2;
+
+    private final AtomicReference<byte[]> solution = new AtomicReference<>();
+    private final AtomicBoolean found = new AtomicBoolean();
+    private final AtomicBoolean cancelled; // set by the caller, null when unused
+    private final int maxSplitDepth;
+
+    private ParallelSlantSolver(int parallelism, AtomicBoolean cancelled) {
+        this.cancelled = cancelled;
+        // A single worker gains nothing from splitting, so it searches sequentially
+        this.maxSplitDepth = (parallelism <= 1) ? 0
+                : 32 - Integer.numberOfLeadingZeros(parallelism) + EXTRA_SPLIT_DEPTH;
+    }
+
+    // === PUBLIC API ===
+
+    /**
+     * Solves the puzzle on the common fork-join pool.
+     *
+     * @param clues one value per node (y * (width + 1) + x), NO_CLUE for blanks.
+     * @param cells cells already placed (y * width + x), or null for none.
+     * @return a full solution in the same layout as cells, or null if none exists.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells) {
+        return solve(width, height, clues, cells, ForkJoinPool.commonPool(), null);
+    }
+
+    /**
+     * Like {@link #solve(int, int, byte[], byte[])}, but every task gives up
+     * once cancelled is set, and null is returned.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+        return solve(width, height, clues, cells, ForkJoinPool.commonPool(), cancelled);
+    }
+
+    /**
+     * Solves the puzzle on the given pool.
+     *
+     * @param cancelled set from another thread to abandon the search, or null.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells, ForkJoinPool pool,
+            AtomicBoolean cancelled) {
+        SolverBoard board = new SolverBoard(width, height, clues, cells);
+        if (!board.isConsistent())
+            return null;
+        ParallelSlantSolver solver = new ParallelSlantSolver(pool.getParallelism(), cancelled);
+        pool.invoke(solver.new SplitTask(board, 0));
+        return solver.solution.get();
+    }
+
+    /**
+     * Solves the current position of a model without modifying it.
+     */
+    public static byte[] solve(SlantModel model) {
+        return solve(model.getWidth(), model.getHeight(), model.getClueCodes(), model.getCellCodes());
+    }
+
+    private void publish(byte[] cells) {
+        if (solution.compareAndSet(null, cells)) {
+            found.set(true); // Cancels every sibling still searching
+        }
+    }
+
+    // === TASKS ===
+
+    private final class SplitTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SolverBoard board;
+        private final int depth;
+
+        SplitTask(SolverBoard board, int depth) {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (found.get() || (cancelled != null && cancelled.get()))
+                return;
+
+            SlantSolver solver = new SlantSolver(board, 1, found, cancelled);
+            if (depth >= maxSplitDepth || getSurplusQueuedTaskCount() > SURPLUS_LIMIT) {
+                solver.run();
+                if (solver.getSolution() != null) {
+                    publish(solver.getSolution());
+                }
+                return;
+            }
+
+            if (!solver.simplify())
+                return;
+            int cell = solver.branchCell();
+            if (cell < 0) {
+                publish(board.toCells());
+                return;
+            }
+
+            // Each branch gets its own copy, so both can run on different workers
+            SolverBoard forward = board.copy();
+            SolverBoard backward = board.copy();
+            boolean forwardOk = forward.assign(cell, PackedBoard.FORWARD);
+            boolean backwardOk = backward.assign(cell, PackedBoard.BACKWARD);
+
+            if (forwardOk && backwardOk) {
+                invokeAll(new SplitTask(forward, depth + 1), new SplitTask(backward, depth + 1));
+            } else if (forwardOk) {
+                new SplitTask(forward, depth + 1).compute();
+            } else if (backwardOk) {
+                new SplitTask(backward, depth + 1).compute();
+            }
+        }
+    }
+}
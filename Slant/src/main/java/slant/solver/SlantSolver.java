@@ -0,0 +1,480 @@
+package slant.solver;
+
+import slant.model.BoardStorage;
+import slant.model.PackedBoard;
+import slant.model.SlantModel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Constraint-propagation solver for Slant.
+ *
+ * Deduction rules, applied per cell until nothing changes (fixpoint):
+ * 1. Saturated clue: a node already has as many lines as its clue, so every
+ *    undecided neighbour must point away from it (covers 0 clues).
+ * 2. Starved clue: a node needs every undecided neighbour to reach its clue,
+ *    so they must all point at it (covers 4 clues and border/corner clues,
+ *    which simply have fewer neighbours).
+ * 3. Loop avoidance: if one diagonal of a cell would close a loop, the cell
+ *    must take the other one.
+ *
+ * When the rules stall, each undecided cell next to a clue is probed: a
+ * diagonal that leads to a contradiction under the rules is ruled out.
+ * Only then does the solver branch on the cell next to the most constrained
+ * clue, trying both diagonals with undo on the {@link SolverBoard} trail.
+ * Plain solving restarts with a doubled node budget and shuffled value
+ * order when a branching order gets stuck in a long run of dead ends.
+ *
+ * Time Complexity: O(N log N) per propagation pass; search is exponential in
+ * the worst case but rarely needed.
+ */
+public class SlantSolver {
+    private final SolverBoard board;
+    private final int limit;
+
+    // Cells waiting to be re-examined by the rules (FIFO ring buffer)
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head;
+    private int size;
+
+    // Restart policy for plain solving (limit 1)
+    private static final long RESTART_BUDGET = 2000;
+    private long budget;
+    private long nodes;
+    private boolean outOfBudget;
+    private int restarts;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    // Set by other threads to abandon the search (null when unused): stop by
+    // the parallel solver once a sibling task has a solution, cancelled by
+    // the caller
+    private final AtomicBoolean stop;
+    private final AtomicBoolean cancelled;
+
+    private int solutions;
+    private byte[] firstSolution;
+
+    SlantSolver(SolverBoard board, int limit) {
+        this(board, limit, null, null);
+    }
+
+    SlantSolver(SolverBoard board, int limit, AtomicBoolean stop, AtomicBoolean cancelled) {
+        this.board = board;
+        this.limit = limit;
+        this.stop = stop;
+        this.cancelled = cancelled;
+        int cellCount = board.width * board.height;
+        this.queue = new int[cellCount];
+        this.queued = new boolean[cellCount];
+    }
+
+    // === PUBLIC API ===
+
+    /**
+     * Solves the puzzle from the given partial board.
+     *
+     * @param clues one value per node (y * (width + 1) + x), NO_CLUE for blanks.
+     * @param cells cells already placed (y * width + x), or null for none.
+     * @return a full solution in the same layout as cells, or null if none exists.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells) {
+        return solve(width, height, clues, cells, null);
+    }
+
+    /**
+     * Like {@link #solve(int, int, byte[], byte[])}, but gives up and
+     * returns null once cancelled is set; it is checked at every search node.
+     */
+    public static byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+        SolverBoard board = new SolverBoard(width, height, clues, cells);
+        if (!board.isConsistent())
+            return null;
+        SlantSolver solver = new SlantSolver(board, 1, null, cancelled);
+        solver.run();
+        return solver.firstSolution;
+    }
+
+    /**
+     * Solves the current position of a model without modifying it.
+     */
+    public static byte[] solve(SlantModel model) {
+        return solve(model.getWidth(), model.getHeight(), model.getClueCodes(), model.getCellCodes());
+    }
+
+    /**
+     * Solves the cells of a board storage (e.g. a {@link slant.model.MappedBoard})
+     * without modifying it.
+     */
+    public static byte[] solve(BoardStorage storage) {
+        return solve(storage.getWidth(), storage.getHeight(), storage.getClueCodes(), storage.getCellCodes());
+    }
+
+    /**
+     * Counts solutions, stopping as soon as limit is reached
+     * (limit 2 is enough to check uniqueness).
+     */
+    public static int countSolutions(int width, int height, byte[] clues, byte[] cells, int limit) {
+        SolverBoard board = new SolverBoard(width, height, clues, cells);
+        if (!board.isConsistent())
+            return 0;
+        SlantSolver solver = new SlantSolver(board, limit);
+        solver.run();
+        return solver.solutions;
+    }
+
+    // === PROPAGATION ===
+
+    void run() {
+        if (limit > 1) {
+            // Counting must visit each branch exactly once, so no restarts
+            budget = Long.MAX_VALUE;
+            enqueueAll();
+            search();
+            return;
+        }
+        budget = RESTART_BUDGET;
+        int root = board.mark();
+        while (true) {
+            enqueueAll();
+            if (!search() || !outOfBudget || isCancelled())
+                return;
+            board.undo(root);
+            clearQueue();
+            // Too many dead ends under the current branching order: start
+            // again with a larger budget and shuffled value choices
+            outOfBudget = false;
+            restarts++;
+            budget *= 2;
+            nodes = 0;
+        }
+    }
+
+    /**
+     * Runs the rules and probing once on the board without undo, as the
+     * parallel solver does before splitting at a choice point.
+     *
+     * @return false on contradiction.
+     */
+    boolean simplify() {
+        enqueueAll();
+        return propagate(true) && probe();
+    }
+
+    /**
+     * @return the cell the search would branch on next, or -1 if complete.
+     */
+    int branchCell() {
+        return chooseCell();
+    }
+
+    /**
+     * @return the first solution found by {@link #run()}, or null.
+     */
+    byte[] getSolution() {
+        return firstSolution;
+    }
+
+    private boolean isCancelled() {
+        return (stop != null && stop.get()) || (cancelled != null && cancelled.get());
+    }
+
+    /**
+     * Depth-first search with propagation at every node.
+     *
+     * @return true once enough solutions have been found to stop.
+     */
+    private boolean search() {
+        if (++nodes > budget || isCancelled()) {
+            outOfBudget = true;
+            return true;
+        }
+        int mark = board.mark();
+        if (!propagate(true) || !probe()) {
+            board.undo(mark);
+            return false;
+        }
+
+        int cell = chooseCell();
+        if (cell < 0) {
+            solutions++;
+            if (firstSolution == null) {
+                firstSolution = board.toCells();
+            }
+            if (solutions >= limit)
+                return true;
+            board.undo(mark);
+            return false;
+        }
+
+        int first = (restarts > 0 && nextRandomBit()) ? PackedBoard.BACKWARD : PackedBoard.FORWARD;
+        for (int i = 0; i < 2; i++) {
+            int code = (i == 0) ? first : PackedBoard.FORWARD + PackedBoard.BACKWARD - first;
+            int branch = board.mark();
+            if (board.assign(cell, code)) {
+                enqueueAround(cell);
+                if (search())
+                    return true;
+            }
+            board.undo(branch);
+        }
+
+        board.undo(mark);
+        return false;
+    }
+
+    /**
+     * Applies the deduction rules to a fixpoint.
+     *
+     * @param sweep also run the board-wide loop sweep once local rules are
+     *              exhausted (skipped during probing to keep probes cheap).
+     * @return false on contradiction.
+     */
+    boolean propagate(boolean sweep) {
+        while (true) {
+            while (size > 0) {
+                int cell = queue[head];
+                head = (head + 1) % queue.length;
+                size--;
+                queued[cell] = false;
+
+                if (board.cells[cell] != PackedBoard.EMPTY)
+                    continue;
+                int forced = deduce(cell);
+                if (forced < 0) {
+                    clearQueue();
+                    return false;
+                }
+                if (forced != PackedBoard.EMPTY) {
+                    if (!board.assign(cell, forced)) {
+                        clearQueue();
+                        return false;
+                    }
+                    enqueueAround(cell);
+                }
+            }
+            // Local rules are exhausted; a merge far away may still force a
+            // cell through the loop rule, so sweep once before giving up
+            if (!sweep || !sweepLoops())
+                return true;
+        }
+    }
+
+    /**
+     * Failed-literal probing: tries each diagonal of every undecided cell
+     * next to a clue with local propagation, and when one leads to a
+     * contradiction the cell is forced the other way. Repeats until a full
+     * pass forces nothing. This catches most deductions a human would make
+     * by looking one step ahead, and keeps the search tree small.
+     *
+     * @return false on contradiction.
+     */
+    private boolean probe() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int cell = 0; cell < board.cells.length; cell++) {
+                if (board.cells[cell] != PackedBoard.EMPTY || !touchesClue(cell))
+                    continue;
+                int forced = PackedBoard.EMPTY;
+                if (!tryCode(cell, PackedBoard.FORWARD)) {
+                    forced = PackedBoard.BACKWARD;
+                } else if (!tryCode(cell, PackedBoard.BACKWARD)) {
+                    forced = PackedBoard.FORWARD;
+                }
+                if (forced != PackedBoard.EMPTY) {
+                    if (!board.assign(cell, forced)) {
+                        return false;
+                    }
+                    enqueueAround(cell);
+                    if (!propagate(true))
+                        return false;
+                    changed = true;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return false if placing code in the cell leads to a contradiction
+     *         under local propagation. The board is left unchanged.
+     */
+    private boolean tryCode(int cell, int code) {
+        int mark = board.mark();
+        boolean ok = board.assign(cell, code);
+        if (ok) {
+            enqueueAround(cell);
+            ok = propagate(false);
+        }
+        board.undo(mark);
+        clearQueue();
+        return ok;
+    }
+
+    private boolean touchesClue(int cell) {
+        int x = cell % board.width;
+        int y = cell / board.width;
+        return board.clues[board.node(x, y)] != PackedBoard.NO_CLUE
+                || board.clues[board.node(x + 1, y)] != PackedBoard.NO_CLUE
+                || board.clues[board.node(x, y + 1)] != PackedBoard.NO_CLUE
+                || board.clues[board.node(x + 1, y + 1)] != PackedBoard.NO_CLUE;
+    }
+
+    /**
+     * Applies every rule to one undecided cell.
+     *
+     * @return the forced code, EMPTY if nothing is forced, or -1 on contradiction.
+     */
+    private int deduce(int cell) {
+        int x = cell % board.width;
+        int y = cell / board.width;
+
+        // Each corner node either requires this cell to touch it (+1),
+        // forbids it (-1), or has no opinion (0). BACKWARD touches the
+        // top-left and bottom-right corners, FORWARD the other two.
+        boolean mustForward = false;
+        boolean mustBackward = false;
+
+        int tl = nodeDemand(board.node(x, y));
+        int tr = nodeDemand(board.node(x + 1, y));
+        int bl = nodeDemand(board.node(x, y + 1));
+        int br = nodeDemand(board.node(x + 1, y + 1));
+
+        if (tl > 0 || br > 0 || tr < 0 || bl < 0)
+            mustBackward = true;
+        if (tr > 0 || bl > 0 || tl < 0 || br < 0)
+            mustForward = true;
+
+        if (board.closesLoop(cell, PackedBoard.FORWARD))
+            mustBackward = true;
+        if (board.closesLoop(cell, PackedBoard.BACKWARD))
+            mustForward = true;
+
+        if (mustForward && mustBackward)
+            return -1;
+        if (mustForward)
+            return PackedBoard.FORWARD;
+        if (mustBackward)
+            return PackedBoard.BACKWARD;
+        return PackedBoard.EMPTY;
+    }
+
+    /**
+     * @return +1 if every undecided neighbour must touch the node (starved),
+     *         -1 if none may (saturated), 0 otherwise.
+     */
+    private int nodeDemand(int n) {
+        int clue = board.clues[n];
+        if (clue == PackedBoard.NO_CLUE)
+            return 0;
+        int lines = board.lines[n];
+        if (lines == clue)
+            return -1;
+        if (lines + board.undecided[n] == clue)
+            return 1;
+        return 0;
+    }
+
+    /**
+     * Queues every undecided cell that the loop rule now forces.
+     *
+     * @return true if anything was queued.
+     */
+    private boolean sweepLoops() {
+        boolean found = false;
+        for (int cell = 0; cell < board.cells.length; cell++) {
+            if (board.cells[cell] == PackedBoard.EMPTY
+                    && (board.closesLoop(cell, PackedBoard.FORWARD) || board.closesLoop(cell, PackedBoard.BACKWARD))) {
+                enqueue(cell);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Branching heuristic: the undecided cell next to the most constrained
+     * clue (fewest undecided neighbours), so that a wrong guess is refuted by
+     * propagation close to where it was made. Cells away from clues come last.
+     *
+     * @return the cell to branch on, or -1 if the board is complete.
+     */
+    private int chooseCell() {
+        if (board.isComplete())
+            return -1;
+        int best = -1;
+        int bestScore = Integer.MAX_VALUE;
+        for (int cell = 0; cell < board.cells.length; cell++) {
+            if (board.cells[cell] != PackedBoard.EMPTY)
+                continue;
+            int x = cell % board.width;
+            int y = cell / board.width;
+            int score = Math.min(
+                    Math.min(clueFreedom(board.node(x, y)), clueFreedom(board.node(x + 1, y))),
+                    Math.min(clueFreedom(board.node(x, y + 1)), clueFreedom(board.node(x + 1, y + 1))));
+            if (score < bestScore) {
+                best = cell;
+                bestScore = score;
+                if (score <= 2)
+                    break; // Cannot do better than a clue with two open neighbours
+            }
+        }
+        return best;
+    }
+
+    private int clueFreedom(int n) {
+        return board.clues[n] == PackedBoard.NO_CLUE ? 5 : board.undecided[n];
+    }
+
+    // xorshift64: deterministic, so a given position always solves the same way
+    private boolean nextRandomBit() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (seed & 1) != 0;
+    }
+
+    // === WORK QUEUE ===
+
+    private void enqueue(int cell) {
+        if (queued[cell] || board.cells[cell] != PackedBoard.EMPTY)
+            return;
+        queued[cell] = true;
+        queue[(head + size) % queue.length] = cell;
+        size++;
+    }
+
+    /**
+     * Queues the undecided cells sharing a corner node with the given cell.
+     */
+    private void enqueueAround(int cell) {
+        int x = cell % board.width;
+        int y = cell / board.width;
+        for (int dy = -1; dy <= 1; dy++) {
+            int ny = y + dy;
+            if (ny < 0 || ny >= board.height)
+                continue;
+            for (int dx = -1; dx <= 1; dx++) {
+                int nx = x + dx;
+                if (nx >= 0 && nx < board.width) {
+                    enqueue(ny * board.width + nx);
+                }
+            }
+        }
+    }
+
+    private void enqueueAll() {
+        for (int cell = 0; cell < board.cells.length; cell++) {
+            enqueue(cell);
+        }
+    }
+
+    private void clearQueue() {
+        while (size > 0) {
+            queued[queue[head]] = false;
+            head = (head + 1) % queue.length;
+            size--;
+        }
+    }
+}
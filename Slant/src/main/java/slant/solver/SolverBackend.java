@@ -0,0 +1,61 @@
+package slant.solver;
+
+import slant.model.BoardStorage;
+import slant.model.SlantModel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The solver implementations the CPU player can use.
+ */
+public enum SolverBackend {
+    BACKTRACKING {
+        @Override
+        public byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+            return SlantSolver.solve(width, height, clues, cells, cancelled);
+        }
+    },
+    PARALLEL {
+        @Override
+        public byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+            return ParallelSlantSolver.solve(width, height, clues, cells, cancelled);
+        }
+    },
+    CDCL {
+        @Override
+        public byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled) {
+            return CdclSolver.solve(width, height, clues, cells, cancelled);
+        }
+    };
+
+    /**
+     * @param clues one value per node (y * (width + 1) + x), NO_CLUE for blanks.
+     * @param cells cells already placed (y * width + x), or null for none.
+     * @param cancelled set from another thread to abandon the search, which
+     *                  then returns null; or null if the search runs to the end.
+     * @return a full solution in the same layout as cells, or null if none
+     *         exists (or the search was cancelled).
+     */
+    public abstract byte[] solve(int width, int height, byte[] clues, byte[] cells, AtomicBoolean cancelled);
+
+    /**
+     * Solves without a way to cancel.
+     */
+    public byte[] solve(int width, int height, byte[] clues, byte[] cells) {
+        return solve(width, height, clues, cells, null);
+    }
+
+    /**
+     * Solves the current position of a model without modifying it.
+     */
+    public byte[] solve(SlantModel model) {
+        return solve(model.getWidth(), model.getHeight(), model.getClueCodes(), model.getCellCodes());
+    }
+
+    /**
+     * Solves the cells of a board storage without modifying it.
+     */
+    public byte[] solve(BoardStorage storage) {
+        return solve(storage.getWidth(), storage.getHeight(), storage.getClueCodes(), storage.getCellCodes());
+    }
+}
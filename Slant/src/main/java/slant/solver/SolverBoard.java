@@ -0,0 +1,208 @@
+package slant.solver;
+
+import slant.algorithm.UnionFind;
+import slant.model.PackedBoard;
+
+/**
+ * Lightweight working board for the solvers.
+ *
+ * Keeps one byte per cell plus, for every node, the number of lines touching
+ * it and the number of adjacent cells still undecided. Loops are ruled out on
+ * assignment with an undoable Union-Find, and every assignment is trailed so
+ * that {@link #undo(int)} restores the board in O(assignments undone).
+ *
+ * Cell codes and clue values use the {@link PackedBoard} conventions.
+ */
+public class SolverBoard {
+    final int width;
+    final int height;
+    final byte[] cells;
+    final byte[] clues;
+    final byte[] lines;
+    final byte[] undecided;
+    final UnionFind nodeSets;
+
+    private int[] trail;
+    private int[] trailCheckpoint;
+    private int trailSize;
+    int undecidedCells;
+
+    private boolean consistent = true;
+
+    /**
+     * @param clues one value per node (y * (width + 1) + x), NO_CLUE for blanks.
+     * @param cells cells already placed (y * width + x), or null for an empty board.
+     */
+    public SolverBoard(int width, int height, byte[] clues, byte[] cells) {
+        this(width, height, clues.clone());
+        if (cells != null) {
+            place(cells);
+        }
+    }
+
+    private SolverBoard(int width, int height, byte[] clues) {
+        this.width = width;
+        this.height = height;
+        this.clues = clues;
+        this.cells = new byte[width * height];
+        this.lines = new byte[(width + 1) * (height + 1)];
+        this.undecided = new byte[(width + 1) * (height + 1)];
+        this.nodeSets = new UnionFind((width + 1) * (height + 1));
+        this.trail = new int[width * height];
+        this.trailCheckpoint = new int[width * height];
+        this.undecidedCells = width * height;
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                undecided[node(x, y)]++;
+                undecided[node(x + 1, y)]++;
+                undecided[node(x, y + 1)]++;
+                undecided[node(x + 1, y + 1)]++;
+            }
+        }
+    }
+
+    // Givens are applied outside the trail, so undo() never removes them
+    private void place(byte[] given) {
+        for (int i = 0; i < given.length; i++) {
+            if (given[i] != PackedBoard.EMPTY && !assign(i, given[i])) {
+                consistent = false;
+            }
+        }
+        trailSize = 0;
+    }
+
+    /**
+     * @return false if the cells given at construction already close a loop
+     *         or break a clue.
+     */
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    /**
+     * @return an independent copy of the current state with an empty trail.
+     */
+    public SolverBoard copy() {
+        SolverBoard copy = new SolverBoard(width, height, clues);
+        copy.place(cells);
+        copy.consistent = consistent;
+        return copy;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCell(int cell) {
+        return cells[cell];
+    }
+
+    public boolean isComplete() {
+        return undecidedCells == 0;
+    }
+
+    /**
+     * @return a copy of the cell codes, row-major.
+     */
+    public byte[] toCells() {
+        return cells.clone();
+    }
+
+    int node(int x, int y) {
+        return y * (width + 1) + x;
+    }
+
+    // FORWARD (/) connects (x+1, y) to (x, y+1); BACKWARD (\) connects (x, y) to (x+1, y+1)
+    int edgeStart(int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? node(x + 1, y) : node(x, y);
+    }
+
+    int edgeEnd(int x, int y, int code) {
+        return (code == PackedBoard.FORWARD) ? node(x, y + 1) : node(x + 1, y + 1);
+    }
+
+    /**
+     * @return true if placing code in the cell would close a loop.
+     */
+    public boolean closesLoop(int cell, int code) {
+        int x = cell % width;
+        int y = cell / width;
+        return nodeSets.connected(edgeStart(x, y, code), edgeEnd(x, y, code));
+    }
+
+    /**
+     * Decides an undecided cell.
+     *
+     * @return false if the move closes a loop (board untouched) or breaks a
+     *         clue (move applied; undo to the previous mark).
+     */
+    public boolean assign(int cell, int code) {
+        int x = cell % width;
+        int y = cell / width;
+        int a = edgeStart(x, y, code);
+        int b = edgeEnd(x, y, code);
+        int checkpoint = nodeSets.checkpoint();
+        if (!nodeSets.union(a, b))
+            return false;
+
+        cells[cell] = (byte) code;
+        trail[trailSize] = cell;
+        trailCheckpoint[trailSize] = checkpoint;
+        trailSize++;
+        undecidedCells--;
+
+        boolean backward = code == PackedBoard.BACKWARD;
+        boolean ok = touch(node(x, y), backward);
+        ok &= touch(node(x + 1, y), !backward);
+        ok &= touch(node(x, y + 1), !backward);
+        ok &= touch(node(x + 1, y + 1), backward);
+        return ok;
+    }
+
+    private boolean touch(int n, boolean touches) {
+        undecided[n]--;
+        if (touches)
+            lines[n]++;
+        int clue = clues[n];
+        return clue == PackedBoard.NO_CLUE || (lines[n] <= clue && lines[n] + undecided[n] >= clue);
+    }
+
+    /**
+     * @return the current trail position for {@link #undo(int)}.
+     */
+    public int mark() {
+        return trailSize;
+    }
+
+    /**
+     * Undoes every assignment made since the given mark, newest first.
+     */
+    public void undo(int mark) {
+        if (trailSize <= mark)
+            return;
+        while (trailSize > mark) {
+            int cell = trail[--trailSize];
+            int x = cell % width;
+            int y = cell / width;
+            boolean backward = cells[cell] == PackedBoard.BACKWARD;
+            untouch(node(x, y), backward);
+            untouch(node(x + 1, y), !backward);
+            untouch(node(x, y + 1), !backward);
+            untouch(node(x + 1, y + 1), backward);
+            cells[cell] = PackedBoard.EMPTY;
+            undecidedCells++;
+        }
+        nodeSets.rollback(trailCheckpoint[mark]);
+    }
+
+    private void untouch(int n, boolean touches) {
+        undecided[n]++;
+        if (touches)
+            lines[n]--;
+    }
+}
@@ -15,6 +15,7 @@ public class SlantFrame extends JFrame {
         SlantModel model = new SlantModel(3, 3); // Default 4x4 dots (3x3 squares)
         SlantController controller = new SlantController(model);
         SlantPanel panel = new SlantPanel(model, controller);
+        controller.startNewGame(model.getWidth(), model.getHeight());
 
         // Menu Bar - Dark Theme
         javax.swing.JMenuBar menuBar = new javax.swing.JMenuBar();
@@ -35,6 +36,11 @@ public class SlantFrame extends JFrame {
             controller.solveGame();
         });
 
+        javax.swing.JMenuItem hintItem = createDarkMenuItem("Hint");
+        hintItem.addActionListener(e -> {
+            controller.showHint();
+        });
+
         javax.swing.JMenu sizeMenu = createDarkMenu("Size");
         int[] sizes = { 4, 8 };
         for (int s : sizes) {
@@ -64,6 +70,7 @@ public class SlantFrame extends JFrame {
 
         gameMenu.add(newItem);
         gameMenu.add(solveItem);
+        gameMenu.add(hintItem);
 
         gameMenu.add(sizeMenu);
 
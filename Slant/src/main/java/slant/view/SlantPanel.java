@@ -1,6 +1,8 @@
 package slant.view;
 
 import slant.controller.SlantController;
+import slant.model.BoardListener;
+import slant.model.Hint;
 import slant.model.Player;
 import slant.model.Slant;
 import slant.model.SlantModel;
@@ -9,6 +11,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.util.BitSet;
 
 public class SlantPanel extends JPanel {
     private SlantModel model;
@@ -20,11 +23,22 @@ public class SlantPanel extends JPanel {
     private int startX;
     private int startY;
 
+    // Clue colours depend on whether the grid is full, so a change here needs a full repaint
+    private boolean paintedGridFull;
+
+    // Shown until the next move; null if none
+    private Hint hint;
+
+    // Cells of the last loop the model reported, shown until one of them changes
+    private int[] loop;
+    private final BitSet loopCells = new BitSet();
+
     // === DARK THEME COLORS ===
     private static final Color BG_DARK = new Color(0, 0, 0);
     private static final Color GRID_LINE_COLOR = new Color(60, 65, 80);
     private static final Color SLANT_COLOR = new Color(100, 200, 255);
     private static final Color SLANT_GLOW = new Color(100, 200, 255, 40);
+    private static final Color LOOP_GLOW = new Color(255, 80, 80, 60);
     private static final Color CLUE_BG_NORMAL = new Color(45, 48, 60);
     private static final Color CLUE_BG_SATISFIED = new Color(40, 180, 100);
     private static final Color CLUE_BORDER = new Color(120, 130, 160);
@@ -44,6 +58,54 @@ public class SlantPanel extends JPanel {
         setPreferredSize(new Dimension(600, 600));
         setBackground(BG_DARK);
 
+        // Repaint only the regions the model reports as changed
+        model.addBoardListener(new BoardListener() {
+            @Override
+            public void cellChanged(int x, int y, Slant oldSlant, Slant newSlant) {
+                clearHint();
+                if (loopCells.get(y * model.getWidth() + x)) {
+                    clearLoop(); // The loop is broken
+                }
+                if (model.isGridFull() != paintedGridFull) {
+                    paintedGridFull = model.isGridFull();
+                    repaint();
+                } else {
+                    repaintRegion(x, y, x + 1, y + 1);
+                }
+            }
+
+            @Override
+            public void nodeChanged(int x, int y, int oldCount, int newCount) {
+                repaintRegion(x, y, x, y);
+            }
+
+            @Override
+            public void clueChanged(int x, int y, Integer oldClue, Integer newClue) {
+                clearHint();
+                repaintRegion(x, y, x, y);
+            }
+
+            @Override
+            public void loopClosed(int[] cells) {
+                clearLoop();
+                loop = cells;
+                for (int cell : cells) {
+                    loopCells.set(cell);
+                }
+                repaintLoop();
+            }
+
+            @Override
+            public void boardReset() {
+                hint = null;
+                loop = null;
+                loopCells.clear();
+                paintedGridFull = model.isGridFull();
+                repaint();
+            }
+        });
+        model.setLoopReporting(true);
+
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -71,6 +133,62 @@ public class SlantPanel extends JPanel {
         });
     }
 
+    /**
+     * Repaints the pixels between grid nodes (x1, y1) and (x2, y2), widened
+     * enough to cover slant glow and clue circles drawn around them.
+     */
+    private void repaintRegion(int x1, int y1, int x2, int y2) {
+        recalculateLayout();
+        int margin = Math.max(Math.max(8, cellSize / 6), Math.max(2, cellSize / 8) + 6) + 2;
+        int px = startX + x1 * cellSize - margin;
+        int py = startY + y1 * cellSize - margin;
+        repaint(px, py, (x2 - x1) * cellSize + 2 * margin, (y2 - y1) * cellSize + 2 * margin);
+    }
+
+    /**
+     * Highlights the hinted cell (and its clue) until the next move.
+     */
+    public void showHint(Hint hint) {
+        clearHint();
+        this.hint = hint;
+        repaintHint();
+    }
+
+    private void clearHint() {
+        if (hint != null) {
+            repaintHint();
+            hint = null;
+        }
+    }
+
+    private void repaintHint() {
+        if (hint == null)
+            return;
+        repaintRegion(hint.getX(), hint.getY(), hint.getX() + 1, hint.getY() + 1);
+        if (hint.getClueX() >= 0) {
+            repaintRegion(hint.getClueX() - 1, hint.getClueY() - 1, hint.getClueX() + 1, hint.getClueY() + 1);
+        }
+    }
+
+    private void clearLoop() {
+        if (loop != null) {
+            repaintLoop();
+            loopCells.clear();
+            loop = null;
+        }
+    }
+
+    // Only the loop's own cells, so the cost follows the loop's length
+    private void repaintLoop() {
+        int width = model.getWidth();
+        for (int cell : loop) {
+            int x = cell % width;
+            int y = cell / width;
+            repaintRegion(x, y, x + 1, y + 1);
+        }
+        updateStatus();
+    }
+
     public void updateBoardSize() {
         revalidate();
         repaint();
@@ -101,6 +219,12 @@ public class SlantPanel extends JPanel {
             String status = String.format(
                     "  %s   |   Time: %s   |   %s",
                     turn, timeStr, diff);
+            if (hint != null) {
+                status += "   |   Hint: " + hint.describe();
+            }
+            if (loop != null) {
+                status += "   |   Loop of " + loop.length + " cells";
+            }
             statusLabel.setText(status);
 
             Color accentColor = isHuman ? ACCENT_CYAN : ACCENT_YELLOW;
@@ -174,13 +298,14 @@ public class SlantPanel extends JPanel {
             g2d.drawLine(px, startY, px, startY + model.getHeight() * cellSize);
         }
 
-        // === SLANTS (Glowing cyan lines) ===
+        // === SLANTS (Glowing cyan lines, red on the reported loop) ===
         int lineWidth = Math.max(2, cellSize / 8);
         for (int y = 0; y < model.getHeight(); y++) {
             for (int x = 0; x < model.getWidth(); x++) {
                 Slant s = model.getSlant(x, y);
                 if (s == Slant.EMPTY)
                     continue;
+                boolean onLoop = loopCells.get(y * model.getWidth() + x);
 
                 int px = startX + x * cellSize;
                 int py = startY + y * cellSize;
@@ -200,12 +325,12 @@ public class SlantPanel extends JPanel {
 
                 // Glow
                 g2d.setStroke(new BasicStroke(lineWidth + 6, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2d.setColor(SLANT_GLOW);
+                g2d.setColor(onLoop ? LOOP_GLOW : SLANT_GLOW);
                 g2d.drawLine(x1, y1, x2, y2);
 
                 // Main line
                 g2d.setStroke(new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                g2d.setColor(SLANT_COLOR);
+                g2d.setColor(onLoop ? ERROR_COLOR : SLANT_COLOR);
                 g2d.drawLine(x1, y1, x2, y2);
             }
         }
@@ -256,5 +381,27 @@ public class SlantPanel extends JPanel {
                 }
             }
         }
+
+        // === HINT (dashed yellow slant, ringed clue) ===
+        if (hint != null) {
+            int px = startX + hint.getX() * cellSize;
+            int py = startY + hint.getY() * cellSize;
+            g2d.setColor(ACCENT_YELLOW);
+            g2d.setStroke(new BasicStroke(2));
+            g2d.drawRect(px + 2, py + 2, cellSize - 4, cellSize - 4);
+            g2d.setStroke(new BasicStroke(lineWidth, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 1,
+                    new float[] { lineWidth * 2f, lineWidth * 2f }, 0));
+            if (hint.getSlant() == Slant.FORWARD) {
+                g2d.drawLine(px, py + cellSize, px + cellSize, py);
+            } else {
+                g2d.drawLine(px, py, px + cellSize, py + cellSize);
+            }
+            if (hint.getClueX() >= 0) {
+                int radius = Math.max(8, cellSize / 6) + 3;
+                g2d.setStroke(new BasicStroke(2));
+                g2d.drawOval(startX + hint.getClueX() * cellSize - radius, startY + hint.getClueY() * cellSize - radius,
+                        radius * 2, radius * 2);
+            }
+        }
     }
 }
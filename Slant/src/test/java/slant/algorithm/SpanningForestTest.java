@@ -0,0 +1,70 @@
+package slant.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SpanningForestTest {
+
+    @Test
+    void pathFollowsTheTreeEdges() {
+        Random random = new Random(3);
+        int size = 300;
+        SpanningForest forest = new SpanningForest(size);
+        UnionFind sets = new UnionFind(size);
+        int[][] ends = new int[size][]; // ends of edge id
+        int edges = 0;
+        while (edges < size - 20) {
+            int a = random.nextInt(size);
+            int b = random.nextInt(size);
+            if (sets.union(a, b)) {
+                forest.link(a, b, edges);
+                ends[edges++] = new int[] { a, b };
+            }
+        }
+
+        for (int query = 0; query < 500; query++) {
+            int a = random.nextInt(size);
+            int b = random.nextInt(size);
+            int[] path = forest.path(a, b);
+            if (!sets.connected(a, b)) {
+                assertNull(path);
+                continue;
+            }
+            assertNotNull(path);
+            // Walking the edges in order leads from a to b
+            int at = a;
+            for (int edge : path) {
+                at = (ends[edge][0] == at) ? ends[edge][1] : ends[edge][0];
+            }
+            assertEquals(b, at);
+        }
+    }
+
+    @Test
+    void rollbackAndIsolateRestoreThePaths() {
+        SpanningForest forest = new SpanningForest(6);
+        forest.link(0, 1, 10);
+        forest.link(1, 2, 11);
+        int checkpoint = forest.checkpoint();
+        forest.link(3, 2, 12);
+        forest.link(4, 0, 13);
+        assertArrayEquals(new int[] { 13, 10, 11, 12 }, forest.path(4, 3));
+
+        forest.rollback(checkpoint);
+        assertEquals(checkpoint, forest.checkpoint());
+        assertNull(forest.path(4, 3));
+        assertArrayEquals(new int[] { 10, 11 }, forest.path(0, 2));
+
+        forest.isolate(new int[] { 0, 1, 2 }, 3);
+        assertEquals(0, forest.checkpoint());
+        assertNull(forest.path(0, 2));
+        forest.link(2, 0, 14);
+        assertArrayEquals(new int[] { 14 }, forest.path(0, 2));
+    }
+}
@@ -0,0 +1,77 @@
+package slant.algorithm;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnionFindTest {
+
+    @Test
+    void unionReportsWhetherTheSetsWereSeparate() {
+        UnionFind sets = new UnionFind(5);
+        assertTrue(sets.union(0, 1));
+        assertTrue(sets.union(1, 2));
+        assertFalse(sets.union(0, 2));
+        assertTrue(sets.connected(2, 0));
+        assertFalse(sets.connected(0, 3));
+    }
+
+    @Test
+    void rollbackRestoresEveryEarlierPartition() {
+        Random random = new Random(1);
+        int size = 200;
+        UnionFind sets = new UnionFind(size);
+        int[] reference = new int[size]; // Component label per element
+        for (int i = 0; i < size; i++) {
+            reference[i] = i;
+        }
+
+        for (int round = 0; round < 50; round++) {
+            int checkpoint = sets.checkpoint();
+            int[] saved = reference.clone();
+            for (int k = 0; k < 40; k++) {
+                int a = random.nextInt(size);
+                int b = random.nextInt(size);
+                boolean separate = reference[a] != reference[b];
+                assertEquals(separate, sets.union(a, b));
+                relabel(reference, reference[b], reference[a]);
+            }
+            assertPartition(reference, sets);
+
+            if (random.nextBoolean()) {
+                sets.rollback(checkpoint);
+                reference = saved;
+                assertPartition(reference, sets);
+            }
+        }
+    }
+
+    @Test
+    void pathCompressionCannotBeRolledBack() {
+        UnionFind sets = new UnionFind(4, true);
+        sets.union(0, 1);
+        assertTrue(sets.connected(1, 0));
+        assertThrows(IllegalStateException.class, sets::checkpoint);
+    }
+
+    private static void relabel(int[] labels, int from, int to) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == from) {
+                labels[i] = to;
+            }
+        }
+    }
+
+    private static void assertPartition(int[] reference, UnionFind sets) {
+        for (int i = 0; i < reference.length; i++) {
+            for (int j = i + 1; j < reference.length; j += 7) {
+                assertEquals(reference[i] == reference[j], sets.connected(i, j), i + " ~ " + j);
+            }
+        }
+    }
+}
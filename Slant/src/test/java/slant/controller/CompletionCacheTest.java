@@ -0,0 +1,187 @@
+package slant.controller;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+import slant.model.Slant;
+import slant.model.SlantModel;
+import slant.solver.SolverBackend;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompletionCacheTest {
+
+    @Test
+    void agreeingMovesKeepTheCache() {
+        Puzzle puzzle = PuzzleGenerator.generate(10, 10, SlantModel.Difficulty.MEDIUM, 5L);
+        SlantModel model = new SlantModel(puzzle);
+        CompletionCache cache = new CompletionCache(model);
+        assertEquals(CompletionCache.SOLVE_NEEDED, cache.cachedMove(model));
+
+        assertTrue(cache.nextMove(model, SolverBackend.CDCL, null) >= 0);
+        byte[] completion = cache.getCompletion();
+        assertArrayEquals(puzzle.getSolutionCodes(), completion);
+
+        Random random = new Random(1);
+        for (int turn = 0; turn < 40; turn++) {
+            // The human plays some cell of the solution, the CPU answers from the cache
+            int x = random.nextInt(10);
+            int y = random.nextInt(10);
+            model.setSlant(x, y, model.getSolutionAt(x, y));
+            int move = cache.cachedMove(model);
+            if (move < 0)
+                break; // Grid full
+            assertEquals(completion[move >> 2], move & 3);
+            model.setSlant((move >> 2) % 10, (move >> 2) / 10, Slant.values()[move & 3]);
+        }
+        assertArrayEquals(completion, cache.getCompletion());
+    }
+
+    @Test
+    void disagreementIsSolvedAgainInAWindow() {
+        // No clues: every loop-free filling is a completion, so a flipped cell
+        // always has one nearby
+        SlantModel model = new SlantModel(16, 16);
+        CompletionCache cache = new CompletionCache(model);
+        cache.nextMove(model, SolverBackend.CDCL, null);
+        byte[] before = cache.getCompletion();
+
+        int cell = 8 * 16 + 8;
+        Slant flipped = (before[cell] == PackedBoard.FORWARD) ? Slant.BACKWARD : Slant.FORWARD;
+        model.setSlant(8, 8, flipped);
+        assertEquals(CompletionCache.SOLVE_NEEDED, cache.cachedMove(model));
+
+        assertTrue(cache.nextMove(model, SolverBackend.CDCL, null) >= 0);
+        byte[] after = cache.getCompletion();
+        assertEquals(flipped.ordinal(), after[cell]);
+        assertFalse(hasLoops(model, after));
+        for (int i = 0; i < after.length; i++) {
+            if (after[i] != before[i]) {
+                int distance = Math.max(Math.abs(i % 16 - 8), Math.abs(i / 16 - 8));
+                assertTrue(distance <= CompletionCache.FIRST_WINDOW_RADIUS, "cell " + i + " changed");
+            }
+        }
+        assertTrue(cache.cachedMove(model) >= 0);
+    }
+
+    @Test
+    void windowSolveKeepsCluesAndPlacedCells() {
+        // Few clues on a board too large for the uniqueness check, so many
+        // cells have more than one value
+        Puzzle puzzle = PuzzleGenerator.generate(14, 14, SlantModel.Difficulty.HARD, 8L,
+                PuzzleGenerator.Mode.FAST);
+        int tested = 0;
+        for (int start = 0; start < 196 && tested < 5; start += 17) {
+            SlantModel model = new SlantModel(puzzle);
+            CompletionCache cache = new CompletionCache(model);
+            cache.nextMove(model, SolverBackend.CDCL, null);
+            byte[] before = cache.getCompletion();
+            assertNotNull(before);
+
+            // Place a few cells of the completion, then a cell that disagrees
+            // but still leaves the position solvable
+            for (int i = 0; i < 196; i += 7) {
+                model.setSlant(i % 14, i / 14, Slant.values()[before[i]]);
+            }
+            int cell = findSolvableFlip(model, before, start);
+            if (cell < 0)
+                continue;
+            Slant flipped = Slant.values()[3 - before[cell]];
+            model.setSlant(cell % 14, cell / 14, flipped);
+            byte[] placed = model.getCellCodes();
+
+            assertTrue(cache.nextMove(model, SolverBackend.CDCL, null) >= 0);
+            byte[] after = cache.getCompletion();
+            for (int i = 0; i < placed.length; i++) {
+                if (placed[i] != PackedBoard.EMPTY) {
+                    assertEquals(placed[i], after[i], "placed cell " + i);
+                }
+            }
+            SlantModel solved = modelWith(model, after);
+            assertTrue(solved.isGridFull());
+            assertTrue(solved.areAllCluesSatisfied());
+            assertFalse(solved.hasLoops());
+            tested++;
+        }
+        assertTrue(tested > 0);
+    }
+
+    @Test
+    void deadEndLastsUntilItsCellChanges() {
+        Puzzle puzzle = PuzzleGenerator.generate(8, 8, SlantModel.Difficulty.HARD, 2L);
+        SlantModel model = new SlantModel(puzzle);
+        CompletionCache cache = new CompletionCache(model);
+        cache.nextMove(model, SolverBackend.CDCL, null);
+
+        // The puzzle has one solution, so any other value is a dead end
+        Slant right = model.getSolutionAt(3, 3);
+        Slant wrong = (right == Slant.FORWARD) ? Slant.BACKWARD : Slant.FORWARD;
+        model.setSlant(3, 3, wrong);
+        assertEquals(-1, cache.nextMove(model, SolverBackend.CDCL, null));
+        assertEquals(-1, cache.cachedMove(model));
+
+        model.setSlant(3, 3, right);
+        int move = cache.cachedMove(model);
+        assertNotEquals(CompletionCache.SOLVE_NEEDED, move);
+        assertTrue(move >= 0);
+    }
+
+    // First cell from start on whose other value the position still has a completion
+    private static int findSolvableFlip(SlantModel model, byte[] completion, int start) {
+        int cells = completion.length;
+        for (int k = 0; k < cells; k++) {
+            int cell = (start + k) % cells;
+            if (model.getSlant(cell % model.getWidth(), cell / model.getWidth()) != Slant.EMPTY)
+                continue;
+            byte[] givens = model.getCellCodes();
+            givens[cell] = (byte) (3 - completion[cell]);
+            if (SolverBackend.CDCL.solve(model.getWidth(), model.getHeight(), model.getClueCodes(), givens) != null)
+                return cell;
+        }
+        return -1;
+    }
+
+    private static boolean hasLoops(SlantModel model, byte[] cells) {
+        return modelWith(model, cells).hasLoops();
+    }
+
+    // A model with the given model's clues and the given cells
+    private static SlantModel modelWith(SlantModel model, byte[] cells) {
+        int width = model.getWidth();
+        PackedBoard board = new PackedBoard(width, model.getHeight());
+        byte[] clues = model.getClueCodes();
+        for (int y = 0; y <= model.getHeight(); y++) {
+            for (int x = 0; x <= width; x++) {
+                board.setClue(x, y, clues[y * (width + 1) + x]);
+                if (x < width && y < model.getHeight()) {
+                    board.setCell(x, y, cells[y * width + x]);
+                }
+            }
+        }
+        return new SlantModel(board);
+    }
+
+    @Test
+    void clueEditDropsTheCompletion() {
+        SlantModel model = new SlantModel(6, 6);
+        CompletionCache cache = new CompletionCache(model);
+        cache.nextMove(model, SolverBackend.CDCL, null);
+        assertNotNull(cache.getCompletion());
+
+        // A 0 in the corner rules out one of the two values of the corner cell
+        model.setClue(0, 0, 0);
+        assertEquals(CompletionCache.SOLVE_NEEDED, cache.cachedMove(model));
+        int move = cache.nextMove(model, SolverBackend.CDCL, null);
+        assertEquals(0, move >> 2);
+        assertEquals(PackedBoard.FORWARD, move & 3);
+    }
+
+}
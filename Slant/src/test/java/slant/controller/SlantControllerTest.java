@@ -0,0 +1,44 @@
+package slant.controller;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+import slant.io.GameId;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+import slant.solver.SolverBackend;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlantControllerTest {
+
+    @Test
+    void importedGameIdIsSolvedWithTheSelectedBackend() {
+        Puzzle original = PuzzleGenerator.generate(7, 6, SlantModel.Difficulty.HARD, 21L);
+        String id = GameId.encode(original);
+
+        for (SolverBackend backend : SolverBackend.values()) {
+            SlantModel model = new SlantModel(3, 3);
+            SlantController controller = new SlantController(model);
+            controller.setSolverBackend(backend);
+            controller.importGameId(id);
+
+            assertEquals(7, model.getWidth());
+            assertEquals(6, model.getHeight());
+            assertEquals(id, controller.exportGameId());
+            // Generated puzzles have one solution, so every backend finds the original
+            assertArrayEquals(original.getSolutionCodes(), model.exportPuzzle().getSolutionCodes(), backend.name());
+            model.solve();
+            assertTrue(model.isSolved());
+        }
+    }
+
+    @Test
+    void unsolvableGameIdIsRejected() {
+        SlantController controller = new SlantController(new SlantModel(3, 3));
+        // A 1x1 board cannot have 0 lines at both ends of its only slant
+        assertThrows(IllegalArgumentException.class, () -> controller.importGameId("1x1:0b0a"));
+    }
+}
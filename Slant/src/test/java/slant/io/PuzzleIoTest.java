@@ -0,0 +1,111 @@
+package slant.io;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleIoTest {
+
+    private static final List<Puzzle> PUZZLES = samplePuzzles();
+
+    @Test
+    void binaryKeepsCluesAndSolution() throws IOException {
+        List<Puzzle> puzzles = PUZZLES;
+        List<Puzzle> read = roundTrip(puzzles, PuzzleFormat.BINARY);
+
+        assertEquals(puzzles.size(), read.size());
+        for (int i = 0; i < puzzles.size(); i++) {
+            assertSameClues(puzzles.get(i), read.get(i));
+            assertArrayEquals(puzzles.get(i).getSolutionCodes(), read.get(i).getSolutionCodes());
+        }
+    }
+
+    @Test
+    void textKeepsCluesOnly() throws IOException {
+        List<Puzzle> puzzles = PUZZLES;
+        List<Puzzle> read = roundTrip(puzzles, PuzzleFormat.TEXT);
+
+        assertEquals(puzzles.size(), read.size());
+        for (int i = 0; i < puzzles.size(); i++) {
+            assertSameClues(puzzles.get(i), read.get(i));
+            assertFalse(read.get(i).hasSolution());
+        }
+    }
+
+    @Test
+    void binaryWithoutSolutionStaysWithout() throws IOException {
+        Puzzle decoded = GameId.decode("3x3:b1c2a0g");
+        List<Puzzle> read = roundTrip(java.util.Collections.singletonList(decoded), PuzzleFormat.BINARY);
+        assertSameClues(decoded, read.get(0));
+        assertFalse(read.get(0).hasSolution());
+    }
+
+    @Test
+    void gameIdRoundTrip() {
+        for (Puzzle puzzle : PUZZLES) {
+            String id = GameId.encode(puzzle);
+            assertTrue(id.startsWith(puzzle.getWidth() + "x" + puzzle.getHeight() + ":"), id);
+            Puzzle decoded = GameId.decode(id);
+            assertSameClues(puzzle, decoded);
+            assertEquals(id, GameId.encode(decoded));
+        }
+    }
+
+    @Test
+    void gameIdRejectsTheWrongNodeCount() {
+        assertThrows(IllegalArgumentException.class, () -> GameId.decode("3x3:b1c2a0"));
+        assertThrows(IllegalArgumentException.class, () -> GameId.decode("3x3:b1c2a0h"));
+        assertThrows(IllegalArgumentException.class, () -> GameId.decode("3:b1c2a0g"));
+    }
+
+    // Several sizes, including boards with blank runs longer than 'z' (26).
+    // Uniqueness does not matter here, so the fast generator mode is enough.
+    private static List<Puzzle> samplePuzzles() {
+        List<Puzzle> puzzles = new ArrayList<>();
+        long seed = 1;
+        for (int size : new int[] { 1, 2, 5, 10, 30, 100 }) {
+            for (SlantModel.Difficulty difficulty : SlantModel.Difficulty.values()) {
+                puzzles.add(PuzzleGenerator.generate(size, size + 1, difficulty, seed++, PuzzleGenerator.Mode.FAST));
+            }
+        }
+        return puzzles;
+    }
+
+    private static List<Puzzle> roundTrip(List<Puzzle> puzzles, PuzzleFormat format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (PuzzleWriter writer = new PuzzleWriter(bytes, format)) {
+            for (Puzzle puzzle : puzzles) {
+                writer.write(puzzle);
+            }
+        }
+        List<Puzzle> read = new ArrayList<>();
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(format, reader.getFormat());
+            for (Puzzle puzzle = reader.read(); puzzle != null; puzzle = reader.read()) {
+                read.add(puzzle);
+            }
+            assertNull(reader.read());
+        }
+        return read;
+    }
+
+    private static void assertSameClues(Puzzle expected, Puzzle actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertArrayEquals(expected.getClueCodes(), actual.getClueCodes());
+    }
+}
@@ -0,0 +1,27 @@
+package slant.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class HintEngineTest {
+
+    @Test
+    void clueEditsRefreshTheHint() {
+        SlantModel model = new SlantModel(3, 3);
+        HintEngine engine = new HintEngine(model);
+        assertNotEquals(Hint.Rule.CLUE_SATISFIED, engine.nextHint().getRule());
+
+        // A 0 in the corner forces the corner cell to point away from it
+        model.setClue(0, 0, 0);
+        Hint hint = engine.nextHint();
+        assertEquals(Hint.Rule.CLUE_SATISFIED, hint.getRule());
+        assertEquals(0, hint.getX());
+        assertEquals(0, hint.getY());
+        assertEquals(Slant.FORWARD, hint.getSlant());
+
+        model.setClue(0, 0, null);
+        assertNotEquals(Hint.Rule.CLUE_SATISFIED, engine.nextHint().getRule());
+    }
+}
@@ -0,0 +1,130 @@
+package slant.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LineCounterTest {
+
+    // Around the word boundaries: rows hold width + 1 nodes, padded to 64 bits
+    private static final int[] WIDTHS = { 1, 2, 5, 62, 63, 64, 65, 126, 127, 128, 129 };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void packedBoardCountsMatchANaiveCount() {
+        Random random = new Random(13);
+        for (int width : WIDTHS) {
+            for (int round = 0; round < 3; round++) {
+                int height = 1 + random.nextInt(6);
+                PackedBoard board = new PackedBoard(width, height);
+                fillRandomly(board, random);
+                assertMatchesNaiveCount(board);
+            }
+        }
+    }
+
+    @Test
+    void mappedBoardCountsMatchANaiveCount() throws IOException {
+        Random random = new Random(17);
+        for (int width : WIDTHS) {
+            try (MappedBoard board = MappedBoard.create(directory.resolve("w" + width), width, 4)) {
+                fillRandomly(board, random);
+                assertMatchesNaiveCount(board);
+            }
+        }
+    }
+
+    @Test
+    void emptyAndFullBoards() {
+        for (int width : WIDTHS) {
+            PackedBoard board = new PackedBoard(width, 3);
+            assertMatchesNaiveCount(board);
+            for (int y = 0; y < 3; y++) {
+                for (int x = 0; x < width; x++) {
+                    board.setCell(x, y, PackedBoard.BACKWARD);
+                }
+            }
+            assertMatchesNaiveCount(board);
+            assertEquals(0, LineCounter.countEmpty(board));
+        }
+    }
+
+    private static void fillRandomly(BoardStorage board, Random random) {
+        for (int y = 0; y <= board.getHeight(); y++) {
+            for (int x = 0; x <= board.getWidth(); x++) {
+                if (x < board.getWidth() && y < board.getHeight()) {
+                    board.setCell(x, y, random.nextInt(3));
+                }
+                // Clues 0-4 or none; many of them will be wrong, which is the point
+                int clue = random.nextInt(6) - 1;
+                board.setClue(x, y, clue < 0 ? PackedBoard.NO_CLUE : (byte) clue);
+            }
+        }
+    }
+
+    private static void assertMatchesNaiveCount(BoardStorage board) {
+        int width = board.getWidth();
+        int height = board.getHeight();
+        byte[] expected = new byte[(width + 1) * (height + 1)];
+        int unsatisfied = 0;
+        for (int y = 0; y <= height; y++) {
+            for (int x = 0; x <= width; x++) {
+                int count = naiveCount(board, x, y);
+                expected[y * (width + 1) + x] = (byte) count;
+                assertEquals(count, LineCounter.countLinesAt(board, x, y), "node " + x + "," + y);
+                byte clue = board.getClue(x, y);
+                if (clue != PackedBoard.NO_CLUE && clue != count)
+                    unsatisfied++;
+            }
+        }
+
+        byte[] filled = new byte[expected.length];
+        LineCounter.fillLineCounts(board, filled);
+        assertArrayEquals(expected, filled, "width " + width);
+        assertEquals(unsatisfied, LineCounter.countUnsatisfied(board), "width " + width);
+
+        long[] planes = new long[3 * board.getWordsPerRow()];
+        for (int y = 0; y <= height; y++) {
+            LineCounter.countRow(board, y, planes);
+            for (int x = 0; x <= width; x++) {
+                int w = x >>> 6;
+                int bit = x & 63;
+                int count = (int) (((planes[3 * w] >>> bit) & 1)
+                        | (((planes[3 * w + 1] >>> bit) & 1) << 1)
+                        | (((planes[3 * w + 2] >>> bit) & 1) << 2));
+                assertEquals(expected[y * (width + 1) + x], count, "row plane at node " + x + "," + y);
+            }
+        }
+
+        int empty = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (board.getCell(x, y) == PackedBoard.EMPTY)
+                    empty++;
+            }
+        }
+        assertEquals(empty, LineCounter.countEmpty(board));
+    }
+
+    // Lines touching a node, read cell by cell
+    private static int naiveCount(BoardStorage board, int x, int y) {
+        int count = 0;
+        if (x > 0 && y > 0 && board.getCell(x - 1, y - 1) == PackedBoard.BACKWARD)
+            count++;
+        if (x < board.getWidth() && y > 0 && board.getCell(x, y - 1) == PackedBoard.FORWARD)
+            count++;
+        if (x > 0 && y < board.getHeight() && board.getCell(x - 1, y) == PackedBoard.FORWARD)
+            count++;
+        if (x < board.getWidth() && y < board.getHeight() && board.getCell(x, y) == PackedBoard.BACKWARD)
+            count++;
+        return count;
+    }
+}
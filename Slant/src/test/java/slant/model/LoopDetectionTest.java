@@ -0,0 +1,182 @@
+package slant.model;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoopDetectionTest {
+
+    @Test
+    void fourSlantsAroundANodeCloseALoop() {
+        SlantModel model = new SlantModel(PuzzleGenerator.generate(3, 3, SlantModel.Difficulty.EASY, 1L));
+        model.setSlant(0, 0, Slant.FORWARD);
+        model.setSlant(1, 0, Slant.BACKWARD);
+        model.setSlant(0, 1, Slant.BACKWARD);
+        assertFalse(model.hasLoops());
+        assertTrue(model.wouldCloseLoop(1, 1, Slant.FORWARD));
+        assertFalse(model.wouldCloseLoop(1, 1, Slant.BACKWARD));
+
+        model.setSlant(1, 1, Slant.FORWARD);
+        assertTrue(model.hasLoops());
+        model.setSlant(1, 1, Slant.BACKWARD); // Overwrite breaks it
+        assertFalse(model.hasLoops());
+    }
+
+    @Test
+    void incrementalAnswersMatchAFreshScan() {
+        Random random = new Random(2);
+        for (int round = 0; round < 20; round++) {
+            int width = 2 + random.nextInt(10);
+            int height = 2 + random.nextInt(10);
+            SlantModel model = new SlantModel(
+                    PuzzleGenerator.generate(width, height, SlantModel.Difficulty.MEDIUM, random.nextLong()));
+            for (int step = 0; step < width * height * 3; step++) {
+                int x = random.nextInt(width);
+                int y = random.nextInt(height);
+                Slant slant = Slant.values()[random.nextInt(3)];
+                if (slant != Slant.EMPTY && model.getSlant(x, y) == Slant.EMPTY) {
+                    assertEquals(closesLoop(model, x, y, slant), model.wouldCloseLoop(x, y, slant));
+                }
+                model.setSlant(x, y, slant);
+                assertEquals(hasLoop(model), model.hasLoops(), "round " + round + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    void reportedLoopsSurviveOverwritesUndoAndToggling() {
+        Random random = new Random(4);
+        for (int round = 0; round < 20; round++) {
+            int width = 2 + random.nextInt(10);
+            int height = 2 + random.nextInt(10);
+            SlantModel model = new SlantModel(width, height);
+            int[][] reported = new int[1][];
+            model.addBoardListener(new BoardListener() {
+                @Override
+                public void cellChanged(int x, int y, Slant oldSlant, Slant newSlant) {
+                }
+
+                @Override
+                public void loopClosed(int[] cells) {
+                    reported[0] = cells;
+                }
+            });
+            boolean reporting = true;
+            model.setLoopReporting(reporting);
+            int mark = -1;
+            for (int step = 0; step < width * height * 4; step++) {
+                int x = random.nextInt(width);
+                int y = random.nextInt(height);
+                Slant slant = Slant.values()[random.nextInt(3)];
+                int choice = random.nextInt(40);
+                if (choice == 0) {
+                    reporting = !reporting;
+                    model.setLoopReporting(reporting);
+                } else if (choice == 1 && mark < 0) {
+                    mark = model.mark();
+                } else if (choice == 2 && mark >= 0) {
+                    model.rollback(mark);
+                    model.commit(mark);
+                    mark = -1;
+                } else if (model.getSlant(x, y) != slant) {
+                    // A move closes a loop when its ends are joined without its old slant
+                    Slant old = model.getSlant(x, y);
+                    model.setSlant(x, y, Slant.EMPTY);
+                    boolean closes = slant != Slant.EMPTY && closesLoop(model, x, y, slant);
+                    model.setSlant(x, y, old);
+                    reported[0] = null;
+                    model.setSlant(x, y, slant);
+                    if (closes && reporting) {
+                        assertIsLoopThrough(model, reported[0], y * width + x);
+                    } else {
+                        assertEquals(null, reported[0], "round " + round + ", step " + step);
+                    }
+                }
+                assertEquals(hasLoop(model), model.hasLoops(), "round " + round + ", step " + step);
+            }
+        }
+    }
+
+    // Every node the cells' slants touch is touched exactly twice
+    private static void assertIsLoopThrough(SlantModel model, int[] cells, int first) {
+        assertTrue(cells != null && cells.length >= 4);
+        assertEquals(first, cells[0]);
+        int[] touches = newSets(model);
+        java.util.Arrays.fill(touches, 0);
+        for (int cell : cells) {
+            int x = cell % model.getWidth();
+            int y = cell / model.getWidth();
+            Slant slant = model.getSlant(x, y);
+            assertTrue(slant != Slant.EMPTY);
+            touches[start(model, x, y, slant)]++;
+            touches[end(model, x, y, slant)]++;
+        }
+        for (int count : touches) {
+            assertTrue(count == 0 || count == 2);
+        }
+    }
+
+    // === REFERENCE: plain disjoint sets rebuilt from the cells ===
+
+    static boolean hasLoop(SlantModel model) {
+        int[] parent = newSets(model);
+        for (int y = 0; y < model.getHeight(); y++) {
+            for (int x = 0; x < model.getWidth(); x++) {
+                Slant slant = model.getSlant(x, y);
+                if (slant != Slant.EMPTY && !join(parent, start(model, x, y, slant), end(model, x, y, slant)))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean closesLoop(SlantModel model, int x, int y, Slant slant) {
+        int[] parent = newSets(model);
+        for (int cy = 0; cy < model.getHeight(); cy++) {
+            for (int cx = 0; cx < model.getWidth(); cx++) {
+                Slant placed = model.getSlant(cx, cy);
+                if (placed != Slant.EMPTY) {
+                    join(parent, start(model, cx, cy, placed), end(model, cx, cy, placed));
+                }
+            }
+        }
+        return find(parent, start(model, x, y, slant)) == find(parent, end(model, x, y, slant));
+    }
+
+    private static int[] newSets(SlantModel model) {
+        int[] parent = new int[(model.getWidth() + 1) * (model.getHeight() + 1)];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        return parent;
+    }
+
+    private static int start(SlantModel model, int x, int y, Slant slant) {
+        int w = model.getWidth() + 1;
+        return (slant == Slant.FORWARD) ? y * w + x + 1 : y * w + x;
+    }
+
+    private static int end(SlantModel model, int x, int y, Slant slant) {
+        int w = model.getWidth() + 1;
+        return (slant == Slant.FORWARD) ? (y + 1) * w + x : (y + 1) * w + x + 1;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static boolean join(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        parent[ra] = rb;
+        return ra != rb;
+    }
+}
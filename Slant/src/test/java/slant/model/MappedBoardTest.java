@@ -0,0 +1,88 @@
+package slant.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import slant.generator.PuzzleGenerator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBoardTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopenedFileHoldsTheSameBoard() throws IOException {
+        Path file = directory.resolve("board.slant");
+        // 70 wide: rows span two words, so the padding bits are exercised too
+        int width = 70;
+        int height = 9;
+        byte[] cells;
+        byte[] clues;
+        byte[] solution = new byte[width * height];
+        try (MappedBoard board = MappedBoard.create(file, width, height)) {
+            PuzzleGenerator.generateInto(board, SlantModel.Difficulty.HARD, 11L, PuzzleGenerator.Mode.FAST);
+            SlantModel model = new SlantModel(board);
+            for (int y = 0; y < height; y += 2) {
+                for (int x = 0; x < width; x += 3) {
+                    model.setSlant(x, y, model.getSolutionAt(x, y));
+                }
+            }
+            cells = model.getCellCodes();
+            clues = model.getClueCodes();
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    solution[y * width + x] = (byte) board.getSolution(x, y);
+                }
+            }
+            board.force();
+        }
+
+        try (MappedBoard board = MappedBoard.open(file)) {
+            assertEquals(width, board.getWidth());
+            assertEquals(height, board.getHeight());
+            SlantModel model = new SlantModel(board);
+            assertArrayEquals(cells, model.getCellCodes());
+            assertArrayEquals(clues, model.getClueCodes());
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    assertEquals(solution[y * width + x], board.getSolution(x, y), "cell " + x + "," + y);
+                }
+            }
+            MoveJournalTest.assertMatchesFreshModel(model);
+
+            model.solve();
+            assertTrue(model.isSolved());
+        }
+    }
+
+    @Test
+    void reopenedGameContinuesWhereItStopped() throws IOException {
+        Path file = directory.resolve("game.slant");
+        try (MappedBoard board = MappedBoard.create(file, 12, 12)) {
+            PuzzleGenerator.generateInto(board, SlantModel.Difficulty.MEDIUM, 5L, PuzzleGenerator.Mode.UNIQUE);
+            SlantModel model = new SlantModel(board);
+            for (int x = 0; x < 12; x++) {
+                model.setSlant(x, 0, model.getSolutionAt(x, 0));
+            }
+        }
+
+        try (MappedBoard board = MappedBoard.open(file)) {
+            SlantModel model = new SlantModel(board);
+            // The first row was played, so the next move is below it
+            assertTrue(model.getBestEmptyCell() >= 12);
+            assertEquals(model.getSolutionAt(5, 0), model.getSlant(5, 0));
+            for (int y = 1; y < 12; y++) {
+                for (int x = 0; x < 12; x++) {
+                    model.setSlant(x, y, model.getSolutionAt(x, y));
+                }
+            }
+            assertTrue(model.isSolved());
+        }
+    }
+}
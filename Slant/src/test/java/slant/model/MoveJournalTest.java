@@ -0,0 +1,98 @@
+package slant.model;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MoveJournalTest {
+
+    @Test
+    void rollbackRestoresCellsCountsAndLoops() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            int width = 2 + random.nextInt(9);
+            int height = 2 + random.nextInt(9);
+            SlantModel model = new SlantModel(
+                    PuzzleGenerator.generate(width, height, SlantModel.Difficulty.HARD, random.nextLong()));
+            // Build the lazy tables now, so every move below updates them incrementally
+            model.rebuildDPTable();
+            playRandomly(model, random, width * height / 2, false);
+
+            byte[] before = model.getCellCodes();
+            boolean loopsBefore = model.hasLoops();
+            int mark = model.mark();
+            // Even rounds only fill empty cells, so the Union-Find is rolled back
+            // exactly; odd rounds overwrite too and force a rebuild
+            playRandomly(model, random, width * height * 2, round % 2 == 1);
+            model.rollback(mark);
+            model.commit(mark);
+
+            assertArrayEquals(before, model.getCellCodes());
+            assertEquals(loopsBefore, model.hasLoops());
+            assertMatchesFreshModel(model);
+        }
+    }
+
+    @Test
+    void nestedMarksUndoInnerMovesOnly() {
+        SlantModel model = new SlantModel(PuzzleGenerator.generate(6, 6, SlantModel.Difficulty.MEDIUM, 4L));
+        model.rebuildDPTable();
+        int outer = model.mark();
+        model.setSlant(0, 0, Slant.FORWARD);
+        byte[] afterOuterMove = model.getCellCodes();
+
+        int inner = model.mark();
+        model.setSlant(1, 0, Slant.BACKWARD);
+        model.setSlant(0, 0, Slant.BACKWARD);
+        model.rollback(inner);
+        assertArrayEquals(afterOuterMove, model.getCellCodes());
+
+        model.rollback(outer);
+        model.commit(outer);
+        assertEquals(Slant.EMPTY, model.getSlant(0, 0));
+        assertMatchesFreshModel(model);
+    }
+
+    private static void playRandomly(SlantModel model, Random random, int moves, boolean overwrite) {
+        for (int i = 0; i < moves; i++) {
+            int x = random.nextInt(model.getWidth());
+            int y = random.nextInt(model.getHeight());
+            if (overwrite || model.getSlant(x, y) == Slant.EMPTY) {
+                // Overwriting rounds may also clear cells
+                int code = overwrite ? random.nextInt(3) : 1 + random.nextInt(2);
+                model.setSlant(x, y, Slant.values()[code]);
+            }
+        }
+    }
+
+    // Every maintained value equals the one a model built from these cells computes
+    static void assertMatchesFreshModel(SlantModel model) {
+        PackedBoard copy = new PackedBoard(model.getWidth(), model.getHeight());
+        byte[] cells = model.getCellCodes();
+        byte[] clues = model.getClueCodes();
+        for (int y = 0; y <= model.getHeight(); y++) {
+            for (int x = 0; x <= model.getWidth(); x++) {
+                copy.setClue(x, y, clues[y * (model.getWidth() + 1) + x]);
+                if (x < model.getWidth() && y < model.getHeight()) {
+                    copy.setCell(x, y, cells[y * model.getWidth() + x]);
+                }
+            }
+        }
+        SlantModel fresh = new SlantModel(copy);
+
+        for (int y = 0; y <= model.getHeight(); y++) {
+            for (int x = 0; x <= model.getWidth(); x++) {
+                assertEquals(fresh.getDPClueCount(x, y), model.getDPClueCount(x, y), "node " + x + "," + y);
+            }
+        }
+        assertEquals(fresh.isGridFull(), model.isGridFull());
+        assertEquals(fresh.areAllCluesSatisfied(), model.areAllCluesSatisfied());
+        assertEquals(fresh.hasLoops(), model.hasLoops());
+        assertEquals(fresh.getBestEmptyCell(), model.getBestEmptyCell());
+        assertEquals(LoopDetectionTest.hasLoop(model), model.hasLoops());
+    }
+}
@@ -0,0 +1,88 @@
+package slant.solver;
+
+import org.junit.jupiter.api.Test;
+import slant.generator.PuzzleGenerator;
+import slant.model.PackedBoard;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SolverAgreementTest {
+    private static final int[] SIZES = { 4, 5, 8, 12, 20 };
+
+    @Test
+    void everyBackendFindsTheUniqueSolution() {
+        for (SlantModel.Difficulty difficulty : SlantModel.Difficulty.values()) {
+            for (int size : SIZES) {
+                for (long seed = 1; seed <= 3; seed++) {
+                    Puzzle puzzle = PuzzleGenerator.generate(size, size, difficulty, seed);
+                    for (SolverBackend backend : SolverBackend.values()) {
+                        byte[] solution = backend.solve(size, size, puzzle.getClueCodes(), null);
+                        assertArrayEquals(puzzle.getSolutionCodes(), solution,
+                                backend + " on " + size + "x" + size + " " + difficulty + " seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void backendsKeepGivenCells() {
+        Puzzle puzzle = PuzzleGenerator.generate(10, 10, SlantModel.Difficulty.HARD, 7L);
+        byte[] givens = new byte[100];
+        for (int cell = 0; cell < 100; cell += 3) {
+            givens[cell] = puzzle.getSolutionCodes()[cell];
+        }
+        for (SolverBackend backend : SolverBackend.values()) {
+            assertArrayEquals(puzzle.getSolutionCodes(), backend.solve(10, 10, puzzle.getClueCodes(), givens),
+                    backend.name());
+        }
+    }
+
+    @Test
+    void backendsAgreeThatContradictionsHaveNoSolution() {
+        Puzzle puzzle = PuzzleGenerator.generate(6, 6, SlantModel.Difficulty.MEDIUM, 9L);
+        byte[] wrong = new byte[36];
+        // The opposite of the unique solution's first cell cannot be completed
+        wrong[0] = (byte) (puzzle.getSolutionCodes()[0] == PackedBoard.FORWARD ? PackedBoard.BACKWARD
+                : PackedBoard.FORWARD);
+        for (SolverBackend backend : SolverBackend.values()) {
+            assertNull(backend.solve(6, 6, puzzle.getClueCodes(), wrong), backend.name());
+        }
+    }
+
+    @Test
+    void cancelledSearchesGiveUp() {
+        Puzzle puzzle = PuzzleGenerator.generate(60, 60, SlantModel.Difficulty.HARD, 42L,
+                PuzzleGenerator.Mode.FAST);
+        Puzzle small = PuzzleGenerator.generate(8, 8, SlantModel.Difficulty.HARD, 1L);
+        for (SolverBackend backend : SolverBackend.values()) {
+            assertNull(backend.solve(60, 60, puzzle.getClueCodes(), null, new AtomicBoolean(true)),
+                    backend.name());
+            // An unset flag changes nothing
+            assertArrayEquals(small.getSolutionCodes(),
+                    backend.solve(8, 8, small.getClueCodes(), null, new AtomicBoolean()), backend.name());
+        }
+    }
+
+    @Test
+    void generatedPuzzlesHaveExactlyOneSolution() {
+        for (int size : SIZES) {
+            Puzzle puzzle = PuzzleGenerator.generate(size, size, SlantModel.Difficulty.HARD, size);
+            assertEquals(1, SlantSolver.countSolutions(size, size, puzzle.getClueCodes(), null, 2), size + "x" + size);
+        }
+    }
+
+    @Test
+    void theSameSeedGivesTheSamePuzzle() {
+        Puzzle first = PuzzleGenerator.generate(15, 12, SlantModel.Difficulty.MEDIUM, 42L);
+        Puzzle second = PuzzleGenerator.generate(15, 12, SlantModel.Difficulty.MEDIUM, 42L);
+        assertArrayEquals(first.getClueCodes(), second.getClueCodes());
+        assertArrayEquals(first.getSolutionCodes(), second.getSolutionCodes());
+    }
+}
@@ -0,0 +1,58 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.controller.SlantController;
+import slant.generator.PuzzleGenerator;
+import slant.model.SlantModel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one CPU move for each CpuStrategy, from a fresh board.
+ * The move is rolled back through the model's journal after each call,
+ * so every invocation starts from the same position. BACKTRACKING only
+ * solves on the first call and then plays from its cached completion, so
+ * it measures the steady state of a game in which the human agrees with it.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CpuMoveBenchmark {
+
+    @Param({ "4", "8", "20", "50" })
+    public int size;
+
+    @Param({ "GREEDY", "DIVIDE_AND_CONQUER", "BACKTRACKING" })
+    public SlantController.CpuStrategy strategy;
+
+    private SlantModel model;
+    private SlantController controller;
+
+    @Setup
+    public void setUp() {
+        model = new SlantModel(PuzzleGenerator.generate(size, size, SlantModel.Difficulty.MEDIUM, 42L));
+        controller = new SlantController(model);
+        controller.setCpuStrategy(strategy);
+    }
+
+    @Benchmark
+    public boolean cpuMove() {
+        int mark = model.mark();
+        boolean moved = controller.makeCpuMove();
+        model.rollback(mark);
+        return moved;
+    }
+}
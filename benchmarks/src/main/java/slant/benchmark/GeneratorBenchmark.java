@@ -0,0 +1,52 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.generator.PuzzleGenerator;
+import slant.model.SlantModel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating a puzzle with PuzzleGenerator and loading it into a model, as
+ * a new game does, at the menu sizes and beyond. Each call uses
+ * the next seed, so the score averages over many boards instead of
+ * timing one lucky (or unlucky) layout.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({ "4", "8", "20", "50" })
+    public int size;
+
+    @Param({ "EASY", "MEDIUM", "HARD" })
+    public SlantModel.Difficulty difficulty;
+
+    private SlantModel model;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        model = new SlantModel(size, size);
+    }
+
+    @Benchmark
+    public SlantModel generatePuzzle() {
+        model.loadPuzzle(PuzzleGenerator.generate(size, size, difficulty, seed++));
+        return model;
+    }
+}
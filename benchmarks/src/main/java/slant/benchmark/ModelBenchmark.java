@@ -0,0 +1,67 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.generator.PuzzleGenerator;
+import slant.model.Slant;
+import slant.model.SlantModel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board operations on SlantModel: the loop check and a single move with
+ * its incremental DP clue-count update.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ModelBenchmark {
+
+    @Param({ "4", "8", "20", "50" })
+    public int size;
+
+    private SlantModel solved;
+    private SlantModel playing;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // A full board without loops: hasLoops has to look at every cell
+        solved = new SlantModel(PuzzleGenerator.generate(size, size, SlantModel.Difficulty.MEDIUM, 42L));
+        solved.solve();
+
+        playing = new SlantModel(PuzzleGenerator.generate(size, size, SlantModel.Difficulty.MEDIUM, 42L));
+    }
+
+    @Benchmark
+    public boolean hasLoops() {
+        return solved.hasLoops();
+    }
+
+    /**
+     * Places the solution slant in the next cell, or clears it if already
+     * placed, so the board cycles between empty and solved.
+     */
+    @Benchmark
+    public Slant setSlant() {
+        int cell = next;
+        next = (cell + 1) % (size * size);
+        int x = cell % size;
+        int y = cell / size;
+        Slant slant = playing.getSlant(x, y) == Slant.EMPTY ? playing.getSolutionAt(x, y) : Slant.EMPTY;
+        playing.setSlant(x, y, slant);
+        return slant;
+    }
+}
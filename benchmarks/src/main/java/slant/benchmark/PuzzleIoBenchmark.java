@@ -0,0 +1,77 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.io.PuzzleFormat;
+import slant.io.PuzzleReader;
+import slant.io.PuzzleWriter;
+import slant.model.Puzzle;
+import slant.model.PackedBoard;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse speed of PuzzleReader on an in-memory corpus of 10000 puzzles,
+ * so the score is pure parsing (one op = the whole corpus).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleIoBenchmark {
+    private static final int PUZZLES = 10000;
+
+    @Param({ "10", "50" })
+    public int size;
+
+    @Param({ "TEXT", "BINARY" })
+    public PuzzleFormat format;
+
+    private byte[] corpus;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PuzzleWriter writer = new PuzzleWriter(out, format)) {
+            for (int i = 0; i < PUZZLES; i++) {
+                byte[] clues = new byte[(size + 1) * (size + 1)];
+                for (int n = 0; n < clues.length; n++) {
+                    clues[n] = random.nextInt(2) == 0 ? PackedBoard.NO_CLUE : (byte) random.nextInt(5);
+                }
+                byte[] solution = new byte[size * size];
+                for (int c = 0; c < solution.length; c++) {
+                    solution[c] = (byte) (1 + random.nextInt(2));
+                }
+                writer.write(new Puzzle(size, size, clues, solution));
+            }
+        }
+        corpus = out.toByteArray();
+    }
+
+    @Benchmark
+    public int readCorpus() throws IOException {
+        int count = 0;
+        try (PuzzleReader reader = new PuzzleReader(new ByteArrayInputStream(corpus))) {
+            while (reader.read() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,62 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.generator.PuzzleGenerator;
+import slant.model.Puzzle;
+import slant.model.SlantModel;
+import slant.solver.SolverBackend;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to solve a HARD puzzle from an empty grid with each SolverBackend.
+ * Each call takes the next of a fixed set of puzzles, so the score is an
+ * average over several boards rather than one lucky or unlucky seed.
+ * Boards above PuzzleGenerator.MAX_UNIQUE_CELLS come from the FAST mode
+ * and may have more than one solution; any one of them ends the search.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    private static final int PUZZLES = 8;
+
+    @Param({ "30", "60" })
+    public int size;
+
+    @Param({ "BACKTRACKING", "PARALLEL", "CDCL" })
+    public SolverBackend backend;
+
+    private byte[][] clues;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        clues = new byte[PUZZLES][];
+        for (int i = 0; i < PUZZLES; i++) {
+            Puzzle puzzle = PuzzleGenerator.generate(size, size, SlantModel.Difficulty.HARD, 42L + i);
+            clues[i] = puzzle.getClueCodes();
+        }
+    }
+
+    @Benchmark
+    public byte[] solve() {
+        byte[] puzzle = clues[next];
+        next = (next + 1) % PUZZLES;
+        return backend.solve(size, size, puzzle, null);
+    }
+}
@@ -0,0 +1,90 @@
+package slant.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import slant.algorithm.DivideAndConquer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DivideAndConquer.mergeSort and quickSort on boxed integers and on int
+ * arrays. keyRange 5 matches the clue values 0-4 the game actually sorts;
+ * the wide range is the general case.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({ "100", "10000", "1000000" })
+    public int length;
+
+    @Param({ "5", "1000000000" })
+    public int keyRange;
+
+    private List<Integer> input;
+    private List<Integer> work;
+    private int[] inputInts;
+    private int[] workInts;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        input = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            input.add(random.nextInt(keyRange));
+        }
+        work = new ArrayList<>(length);
+        inputInts = new int[length];
+        for (int i = 0; i < length; i++) {
+            inputInts[i] = input.get(i);
+        }
+        workInts = new int[length];
+    }
+
+    @Benchmark
+    public List<Integer> mergeSort() {
+        return DivideAndConquer.mergeSort(input);
+    }
+
+    /**
+     * quickSort works in place, so each call first restores the unsorted
+     * input into a preallocated list (no allocation).
+     */
+    @Benchmark
+    public List<Integer> quickSort() {
+        work.clear();
+        work.addAll(input);
+        DivideAndConquer.quickSort(work);
+        return work;
+    }
+
+    @Benchmark
+    public int[] mergeSortInts() {
+        System.arraycopy(inputInts, 0, workInts, 0, length);
+        DivideAndConquer.mergeSort(workInts);
+        return workInts;
+    }
+
+    @Benchmark
+    public int[] quickSortInts() {
+        System.arraycopy(inputInts, 0, workInts, 0, length);
+        DivideAndConquer.quickSort(workInts);
+        return workInts;
+    }
+}